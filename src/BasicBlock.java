@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+
+/**
+ * This class stores a basic block of intermediate code: straight-line instructions that can only be entered at the
+ * top, optionally ending in a goto or conditional branch. A block that doesn't end in a goto falls through to the
+ * next block.
+ *
+ * @author Emily Doran
+ *
+ */
+public class BasicBlock {
+
+    private int id;
+    // label defined at the top of the block (-1 if none)
+    private int label = -1;
+    // instructions of the block, without its label and jump
+    private ArrayList<IRInstruction> instructions = new ArrayList<IRInstruction>();
+    // goto or branch ending the block (null if none)
+    private IRInstruction jump;
+    // block after this one in program order (null if last)
+    private BasicBlock next;
+    // block the jump goes to (null if no jump)
+    private BasicBlock target;
+    private boolean reachable = false;
+
+    public BasicBlock(int id){
+        this.id = id;
+    }
+
+    /**
+     * Get the position of the block in program order
+     * @return block id
+     */
+    public int getId(){
+        return id;
+    }
+
+    /**
+     * Get the label defined at the top of the block
+     * @return label id (-1 if none)
+     */
+    public int getLabel(){
+        return label;
+    }
+
+    /**
+     * Set the label defined at the top of the block
+     * @param label id
+     */
+    public void setLabel(int label){
+        this.label = label;
+    }
+
+    /**
+     * Get the instructions of the block, without its label and jump
+     * @return instructions
+     */
+    public ArrayList<IRInstruction> getInstructions(){
+        return instructions;
+    }
+
+    /**
+     * Get the goto or branch ending the block
+     * @return jump (null if none)
+     */
+    public IRInstruction getJump(){
+        return jump;
+    }
+
+    /**
+     * Set the goto or branch ending the block
+     * @param jump (null for none)
+     */
+    public void setJump(IRInstruction jump){
+        this.jump = jump;
+    }
+
+    /**
+     * Get the block after this one in program order (in the layout, once unreachable blocks are left out)
+     * @return next block (null if last)
+     */
+    public BasicBlock getNext(){
+        return next;
+    }
+
+    /**
+     * Set the block after this one in program order (or in the layout)
+     * @param next block
+     */
+    public void setNext(BasicBlock next){
+        this.next = next;
+    }
+
+    /**
+     * Get the block the jump goes to
+     * @return target block (null if no jump)
+     */
+    public BasicBlock getTarget(){
+        return target;
+    }
+
+    /**
+     * Set the block the jump goes to
+     * @param target block
+     */
+    public void setTarget(BasicBlock target){
+        this.target = target;
+    }
+
+    /**
+     * Check if control can reach the block from the start of the program
+     * @return true if reachable
+     */
+    public boolean isReachable(){
+        return reachable;
+    }
+
+    /**
+     * Mark whether control can reach the block
+     * @param reachable
+     */
+    public void setReachable(boolean reachable){
+        this.reachable = reachable;
+    }
+
+    /**
+     * Check if control can fall out of the bottom of the block into the next block
+     * @return true unless the block ends in a goto
+     */
+    public boolean fallsThrough(){
+        return jump == null || jump.getOp() != IRInstruction.GOTO;
+    }
+
+    /**
+     * Check if the block has no instructions other than its label and jump
+     * @return true if empty
+     */
+    public boolean isEmpty(){
+        return instructions.isEmpty();
+    }
+}
@@ -13,11 +13,16 @@ public class Compiler {
     public static void main (String[] args) throws Exception {
 
         // check if a paramater is entered to read the file contents
-        if(args.length == 1){
-            Lexer lex = new Lexer(args[0], true);
+        CompilerOptions options = CompilerOptions.parse(args);
+        if(options != null){
+            Lexer lex = new Lexer(options.getFile(), true, options);
         } else{
             System.out.println("To Run the compiler, Enter the File as a Command Line Parameter\n " +
-                    "i.e. \"java Compiler testCases.txt\"");
+                    "i.e. \"java Compiler testCases.txt\"\n" +
+                    "Add --run to execute each program after code generation, --bench to time it, or --profile to find " +
+                    "the statements that take the most cycles\n" +
+                    "Add --debug-map to write which source line each range of machine code came from to a JSON file, " +
+                    "or --list to print the machine code as annotated assembly");
         }
     }
 }
@@ -0,0 +1,108 @@
+/**
+ * This class stores the command line options of the compiler, which are passed along from the Lexer through every
+ * phase to Code Generation.
+ *
+ * @author Emily Doran
+ *
+ */
+public class CompilerOptions {
+
+    private String file;
+    // execute each program that passes code generation
+    private boolean runMode = false;
+    // time each program that passes code generation on the fast emulator core
+    private boolean benchMode = false;
+    // profile each program that passes code generation by source statement
+    private boolean profileMode = false;
+    // write the source map of each program that passes code generation next to the compiled file
+    private boolean debugMap = false;
+    // print an annotated assembly listing of each program that passes code generation
+    private boolean listing = false;
+
+    /**
+     * Parse the command line arguments. Options start with "--" and the one other argument is the file to compile.
+     * @param args command line arguments
+     * @return options (null if an argument isn't recognized or there isn't exactly one file)
+     */
+    public static CompilerOptions parse(String[] args){
+        CompilerOptions options = new CompilerOptions();
+        int numFiles = 0;
+        for(String arg: args){
+            if(arg.equals("--run")){
+                options.runMode = true;
+            }
+            else if(arg.equals("--bench")){
+                options.benchMode = true;
+            }
+            else if(arg.equals("--profile")){
+                options.profileMode = true;
+            }
+            else if(arg.equals("--debug-map")){
+                options.debugMap = true;
+            }
+            else if(arg.equals("--list")){
+                options.listing = true;
+            }
+            else if(arg.startsWith("--")){
+                System.out.println("Unknown option " + arg);
+                return null;
+            }
+            else{
+                options.file = arg;
+                numFiles++;
+            }
+        }
+        if(numFiles != 1){
+            return null;
+        }
+        return options;
+    }
+
+    /**
+     * Get the file to compile
+     * @return file name
+     */
+    public String getFile(){
+        return file;
+    }
+
+    /**
+     * Check if programs should be executed after code generation
+     * @return true if run mode
+     */
+    public boolean isRunMode(){
+        return runMode;
+    }
+
+    /**
+     * Check if programs should be timed on the fast emulator core after code generation
+     * @return true if benchmark mode
+     */
+    public boolean isBenchMode(){
+        return benchMode;
+    }
+
+    /**
+     * Check if programs should be profiled by source statement after code generation
+     * @return true if profile mode
+     */
+    public boolean isProfileMode(){
+        return profileMode;
+    }
+
+    /**
+     * Check if the source map of each program should be written to a file after code generation
+     * @return true if writing debug maps
+     */
+    public boolean isDebugMap(){
+        return debugMap;
+    }
+
+    /**
+     * Check if an assembly listing of each program should be printed after code generation
+     * @return true if printing listings
+     */
+    public boolean isListing(){
+        return listing;
+    }
+}
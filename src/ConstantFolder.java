@@ -0,0 +1,148 @@
+/**
+ * This class folds constant expressions in the AST before code generation. An addition of digits is replaced by its
+ * value ("1+2+3" becomes "6"), the digits in front of a variable are added together ("1+2+a" becomes "3+a"), and an
+ * equality test of two constants is replaced by true or false ("2 == 1+1" becomes "true"). Nested equality tests are
+ * folded from the inside out, so "((1 == 2) != (2 == 2))" becomes "(false != true)" and then "true". This relies on
+ * SemanticAnalyzer.booleanExpr skipping the ops inside nested parentheses, so each test gets its own op.
+ *
+ * Integers are bytes on the 6502a, so folded values wrap at 256 like the ADC instructions they replace. Folded
+ * integers can have more than one digit.
+ *
+ * @author Emily Doran
+ *
+ */
+public class ConstantFolder {
+
+    private int numFolded = 0;
+
+    /**
+     * Creates a new instance of ConstantFolder and folds the AST
+     * @param ast to fold
+     */
+    public ConstantFolder(SyntaxTree ast){
+        if(ast.getRoot() != null){
+            fold(ast.getRoot());
+        }
+    }
+
+    /**
+     * Get the number of expressions that were folded
+     * @return number of folded expressions
+     */
+    public int getNumFolded(){
+        return numFolded;
+    }
+
+    /**
+     * Fold the children of a node, then the node itself
+     * @param node to fold
+     */
+    private void fold(Node node){
+        for(Node child: node.getChildren()){
+            fold(child);
+        }
+
+        if(node.getName().equals("Addition")){
+            foldAddition(node);
+        }
+        else if(node.getName().equals("isEqual") || node.getName().equals("isNotEqual")){
+            foldComparison(node);
+        }
+    }
+
+    /**
+     * Fold an addition whose nested additions are already folded (digit + digit, digit + (digit + variable))
+     * @param node Addition node
+     */
+    private void foldAddition(Node node){
+        Node left = node.getChildren().get(0);
+        Node right = node.getChildren().get(1);
+        if(!isInt(left.getName())){
+            return;
+        }
+
+        // digit + digit -> value
+        if(isInt(right.getName())){
+            replaceWithValue(node, Integer.toString(add(left.getName(), right.getName())));
+        }
+        // digit + (digit + variable) -> (digit + variable)
+        else if(right.getName().equals("Addition") && isInt(right.getChildren().get(0).getName())){
+            Node variable = right.getChildren().get(1);
+            left.setName(Integer.toString(add(left.getName(), right.getChildren().get(0).getName())));
+            variable.setParent(node);
+            node.getChildren().set(1, variable);
+            numFolded++;
+        }
+    }
+
+    /**
+     * Fold an equality test of two constants (integers, booleans, or strings)
+     * @param node isEqual or isNotEqual node
+     */
+    private void foldComparison(Node node){
+        String value1 = node.getChildren().get(0).getName();
+        String value2 = node.getChildren().get(1).getName();
+
+        boolean equal;
+        if(isInt(value1) && isInt(value2)){
+            equal = Integer.parseInt(value1) == Integer.parseInt(value2);
+        }
+        else if((isBoolean(value1) && isBoolean(value2)) || (isString(value1) && isString(value2))){
+            equal = value1.equals(value2);
+        }
+        else{
+            return;
+        }
+
+        if(node.getName().equals("isNotEqual")){
+            equal = !equal;
+        }
+        replaceWithValue(node, Boolean.toString(equal));
+    }
+
+    /**
+     * Replace an expression node with a constant leaf
+     * @param node to replace, value of the expression
+     */
+    private void replaceWithValue(Node node, String value){
+        node.setName(value);
+        node.getChildren().clear();
+        numFolded++;
+    }
+
+    /**
+     * Add two integer literals the way the 6502a does
+     * @param value1, value2 integer literals
+     * @return sum wrapped to a byte
+     */
+    private int add(String value1, String value2){
+        return (Integer.parseInt(value1) + Integer.parseInt(value2)) & 0xFF;
+    }
+
+    /**
+     * Check if a node name is an integer literal
+     * @param value node name
+     * @return true if integer
+     */
+    private boolean isInt(String value){
+        return value.matches("[0-9]+");
+    }
+
+    /**
+     * Check if a node name is a boolean literal
+     * @param value node name
+     * @return true if boolean
+     */
+    private boolean isBoolean(String value){
+        return value.equals("true") || value.equals("false");
+    }
+
+    /**
+     * Check if a node name is a string literal
+     * @param value node name
+     * @return true if string
+     */
+    private boolean isString(String value){
+        return value.charAt(0) == '"';
+    }
+}
@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+
+/**
+ * This class splits intermediate code into basic blocks connected by fall through and jump edges, and lays the
+ * blocks back out as a linear program. Branches only name their target block, so the layout can move and drop code
+ * freely and instruction selection resolves every branch distance from the final label offsets.
+ *
+ * Layout cleans up the control flow the lowering leaves behind:
+ * - a jump to an empty block that only jumps or falls through somewhere else goes straight to the final block
+ * - blocks that can't be reached from the start of the program are left out
+ * - a goto or branch to where control would fall through to anyway is left out
+ * and only blocks that are still jumped to keep a label.
+ *
+ * @author Emily Doran
+ *
+ */
+public class ControlFlowGraph {
+
+    private IRProgram program;
+    private ArrayList<BasicBlock> blocks = new ArrayList<BasicBlock>();
+    // block each label is defined in
+    private BasicBlock[] labelBlocks;
+
+    private int jumpsThreaded = 0;
+    private int blocksRemoved = 0;
+    private int jumpsRemoved = 0;
+
+    /**
+     * Creates a new instance of ControlFlowGraph and splits the program into basic blocks
+     * @param program to build the graph of
+     */
+    public ControlFlowGraph(IRProgram program){
+        this.program = program;
+        labelBlocks = new BasicBlock[program.getNumLabels()];
+
+        // a label starts a new block and a jump ends one
+        BasicBlock block = addBlock();
+        for(IRInstruction instruction: program.getInstructions()){
+            if(instruction.getOp() == IRInstruction.LABEL){
+                if(!block.isEmpty() || block.getLabel() != -1){
+                    block = addBlock();
+                }
+                block.setLabel(instruction.getLabel());
+                labelBlocks[instruction.getLabel()] = block;
+            }
+            else if(instruction.isJump()){
+                block.setJump(instruction);
+                block = addBlock();
+            }
+            else{
+                block.getInstructions().add(instruction);
+            }
+        }
+
+        for(BasicBlock current: blocks){
+            if(current.getJump() != null){
+                current.setTarget(labelBlocks[current.getJump().getLabel()]);
+            }
+        }
+    }
+
+    /**
+     * Get the basic blocks
+     * @return blocks in program order
+     */
+    public ArrayList<BasicBlock> getBlocks(){
+        return blocks;
+    }
+
+    /**
+     * Simplify the control flow and replace the program's instructions with the blocks laid out in program order
+     */
+    public void layout(){
+        // jump straight to where an empty block would send control
+        for(BasicBlock block: blocks){
+            if(block.getJump() != null){
+                BasicBlock target = finalTarget(block.getTarget());
+                if(target != block.getTarget()){
+                    block.setTarget(target);
+                    jumpsThreaded++;
+                }
+            }
+        }
+
+        markReachable();
+        ArrayList<BasicBlock> order = new ArrayList<BasicBlock>();
+        for(BasicBlock block: blocks){
+            if(block.isReachable()){
+                order.add(block);
+            }
+            else if(!block.isEmpty() || block.getJump() != null){
+                blocksRemoved++;
+            }
+        }
+
+        // with unreachable blocks left out, control falls through to the next block in the layout
+        for(int i = 0; i < order.size(); i++){
+            if(i + 1 < order.size()){
+                order.get(i).setNext(order.get(i + 1));
+            }
+            else{
+                order.get(i).setNext(null);
+            }
+        }
+
+        // a jump to where control would fall anyway does nothing (a branch falls through to the same place either
+        // way); going backward lets a removed jump make the jump before it removable too
+        for(int i = order.size() - 2; i >= 0; i--){
+            BasicBlock block = order.get(i);
+            if(block.getJump() != null && finalTarget(block.getTarget()) == finalTarget(order.get(i + 1))){
+                block.setJump(null);
+                block.setTarget(null);
+                jumpsRemoved++;
+            }
+        }
+
+        // only blocks that are still jumped to need a label
+        boolean[] targeted = new boolean[blocks.size()];
+        for(BasicBlock block: order){
+            if(block.getTarget() != null){
+                targeted[block.getTarget().getId()] = true;
+            }
+        }
+
+        ArrayList<IRInstruction> instructions = new ArrayList<IRInstruction>();
+        for(BasicBlock block: order){
+            if(targeted[block.getId()]){
+                if(block.getLabel() == -1){
+                    block.setLabel(program.newLabel());
+                }
+                instructions.add(new IRInstruction(IRInstruction.LABEL, null, null, null, block.getLabel()));
+            }
+            instructions.addAll(block.getInstructions());
+            if(block.getJump() != null){
+                block.getJump().setLabel(block.getTarget().getLabel());
+                instructions.add(block.getJump());
+            }
+        }
+        program.replaceInstructions(instructions);
+    }
+
+    /**
+     * Get the number of jumps sent straight past empty blocks
+     * @return jumps threaded
+     */
+    public int getJumpsThreaded(){
+        return jumpsThreaded;
+    }
+
+    /**
+     * Get the number of unreachable blocks left out
+     * @return blocks removed
+     */
+    public int getBlocksRemoved(){
+        return blocksRemoved;
+    }
+
+    /**
+     * Get the number of jumps to the next block left out
+     * @return jumps removed
+     */
+    public int getJumpsRemoved(){
+        return jumpsRemoved;
+    }
+
+    /**
+     * Add a new empty block after the last block
+     * @return new block
+     */
+    private BasicBlock addBlock(){
+        BasicBlock block = new BasicBlock(blocks.size());
+        if(!blocks.isEmpty()){
+            blocks.get(blocks.size() - 1).setNext(block);
+        }
+        blocks.add(block);
+        return block;
+    }
+
+    /**
+     * Follow empty blocks to the first block that does something
+     * @param block jumped to
+     * @return block control ends up in
+     */
+    private BasicBlock finalTarget(BasicBlock block){
+        // a chain of empty blocks can loop forever ("while true {}"), so stop after visiting every block once
+        for(int steps = 0; steps < blocks.size() && block.isEmpty(); steps++){
+            if(block.getJump() != null && block.getJump().getOp() == IRInstruction.GOTO){
+                block = block.getTarget();
+            }
+            else if(block.getJump() == null && block.getNext() != null){
+                block = block.getNext();
+            }
+            else{
+                break;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Mark every block control can reach from the first block
+     */
+    private void markReachable(){
+        ArrayList<BasicBlock> stack = new ArrayList<BasicBlock>();
+        stack.add(blocks.get(0));
+        while(!stack.isEmpty()){
+            BasicBlock block = stack.remove(stack.size() - 1);
+            if(block == null || block.isReachable()){
+                continue;
+            }
+            block.setReachable(true);
+            if(block.fallsThrough()){
+                stack.add(block.getNext());
+            }
+            stack.add(block.getTarget());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+
+/**
+ * This class performs a flow-sensitive definite-assignment analysis on the AST. It finds the variable declarations
+ * whose default value (0 / false) can be read before the program assigns the variable a value. Every other
+ * declaration's default initialization store is dead and can be left out by code generation.
+ *
+ * Assignments inside an if or while body are not definite after the statement, since the body may never run.
+ * The analysis also records which variables are ever read, so stores to variables that are never read can be removed.
+ *
+ * Variable names are looked up in the scope snapshot of the statement they are used in, the same way code generation
+ * looks them up, so a read of an outer variable before an inner declaration of the same name is charged to the outer
+ * variable. If a name can't be looked up, no default store is treated as dead and no variable as never read.
+ *
+ * @author Emily Doran
+ *
+ */
+public class DefiniteAssignmentAnalyzer {
+
+    private SymbolTable symbolTable;
+
+    // per scope bitsets (bit 0 = a ... bit 25 = z) of variables whose default value may be read
+    private int[] needsDefault;
+
+    // per scope bitsets of variables that are read somewhere in the program
+    private int[] read;
+
+    // true if a variable read couldn't be looked up, so every default value and store has to be kept
+    private boolean unresolvedRead = false;
+
+    /**
+     * Creates a new instance of DefiniteAssignmentAnalyzer and analyzes the AST
+     * @param ast to analyze, symbolTable built by semantic analysis
+     */
+    public DefiniteAssignmentAnalyzer(SyntaxTree ast, SymbolTable symbolTable){
+        this.symbolTable = symbolTable;
+        needsDefault = new int[symbolTable.size()];
+        read = new int[symbolTable.size()];
+
+        // nothing is assigned when the program starts
+        analyzeBlock(ast.getRoot(), new int[symbolTable.size()]);
+    }
+
+    /**
+     * Check if a variable declaration needs its default initialization store
+     * @param variableName, scope of declaration
+     * @return true if the default value may be read before the variable is assigned
+     */
+    public boolean needsDefaultInit(char variableName, int scope){
+        return unresolvedRead || (needsDefault[scope] & Scope.getBit(Character.toString(variableName))) != 0;
+    }
+
+    /**
+     * Check if a variable is ever read by the program
+     * @param variableName, scope of declaration
+     * @return true if the variable's value is read somewhere
+     */
+    public boolean isRead(char variableName, int scope){
+        return unresolvedRead || (read[scope] & Scope.getBit(Character.toString(variableName))) != 0;
+    }
+
+    /**
+     * Analyze each statement of a block in order
+     * @param block node, assigned bitsets (updated in place)
+     */
+    private void analyzeBlock(Node block, int[] assigned){
+        for(Node statement: block.getChildren()){
+            analyzeStatement(statement, assigned);
+        }
+    }
+
+    /**
+     * Update the assigned bitsets for a statement and record any reads of unassigned variables
+     * @param statement node, assigned bitsets (updated in place)
+     */
+    private void analyzeStatement(Node statement, int[] assigned){
+        String name = statement.getName();
+
+        // declaration starts a new variable with only its default value
+        if(name.equals("VariableDeclaration")){
+            String var = statement.getChildren().get(1).getName();
+            assigned[statement.getScopeSnapshot().getScopeNum()] &= ~Scope.getBit(var);
+        }
+        else if(name.equals("Assign")){
+            String var = statement.getChildren().get(0).getName();
+            Node value = statement.getChildren().get(1);
+            int varScope = getVariableScope(var, statement);
+
+            analyzeReads(value, statement, assigned);
+
+            // assigning a variable to itself reads its old value
+            if(value.getName().equals(var)){
+                checkRead(var, statement, assigned);
+            }
+            // assigning a variable to itself does not generate a store
+            if(varScope != -1 && !value.getName().equals(var)){
+                assigned[varScope] |= Scope.getBit(var);
+            }
+        }
+        else if(name.equals("Print")){
+            analyzeReads(statement.getChildren().get(0), statement, assigned);
+        }
+        // the body may never run, so assignments inside it are not definite afterwards
+        else if(name.equals("If") || name.equals("While")){
+            analyzeReads(statement.getChildren().get(0), statement, assigned);
+            analyzeBlock(statement.getChildren().get(1), assigned.clone());
+        }
+        else if(name.equals("BLOCK")){
+            analyzeBlock(statement, assigned);
+        }
+    }
+
+    /**
+     * Record the reads of every variable in an expression
+     * @param expr node, statement the expression is in, assigned bitsets
+     */
+    private void analyzeReads(Node expr, Node statement, int[] assigned){
+        ArrayList<Node> children = expr.getChildren();
+        if(children.size() > 0){
+            for(Node child: children){
+                analyzeReads(child, statement, assigned);
+            }
+        }
+        else if(expr.getName().matches("[a-z]")){
+            checkRead(expr.getName(), statement, assigned);
+        }
+    }
+
+    /**
+     * Mark the variable's declaration as needing its default value if it's read before being assigned
+     * @param var name, statement the read is in, assigned bitsets
+     */
+    private void checkRead(String var, Node statement, int[] assigned){
+        int varScope = getVariableScope(var, statement);
+        if(varScope == -1){
+            unresolvedRead = true;
+            return;
+        }
+        read[varScope] |= Scope.getBit(var);
+        if((assigned[varScope] & Scope.getBit(var)) == 0){
+            needsDefault[varScope] |= Scope.getBit(var);
+        }
+    }
+
+    /**
+     * Get the scope number of the declaration of a variable visible at a statement
+     * @param var name, statement the variable is used in
+     * @return variable scope num (-1 if not found)
+     */
+    private int getVariableScope(String var, Node statement){
+        if(statement.getScopeSnapshot() == null){
+            return -1;
+        }
+        return statement.getScopeSnapshot().lookupScope(var);
+    }
+}
@@ -0,0 +1,305 @@
+import java.util.ArrayList;
+
+/**
+ * This class turns a finished 256 byte 6502a memory image back into an annotated assembly listing: each instruction
+ * with its address, bytes, and mnemonic, the source statement it came from, the static variable an address operand
+ * is, the jump label a branch goes to, and heap strings by their text. The static variables and the strings in the
+ * heap are listed after the code.
+ *
+ * @author Emily Doran
+ *
+ */
+public class Disassembler {
+
+    private byte[] image;
+    private int heapStart;
+    private StaticVariableTable varTable;
+    private SourceMap sourceMap;
+    private ArrayList<MachineInstruction> instructions;
+
+    // names of the jump labels at each address (null if none)
+    private String[] labels = new String[Emitter.MEMORY_SIZE];
+    // name of each static variable table item by index
+    private String[] variableNames;
+
+    /**
+     * Creates a new instance of Disassembler for code whose relocations have been resolved
+     * @param emitter with the finished code, varTable with each static variable's address, jumpTable with each
+     *                jump's distance, sourceMap of the code
+     */
+    public Disassembler(Emitter emitter, StaticVariableTable varTable, JumpTable jumpTable, SourceMap sourceMap){
+        this.image = emitter.getImage();
+        this.heapStart = emitter.getHeapStart();
+        this.varTable = varTable;
+        this.sourceMap = sourceMap;
+        instructions = emitter.decode();
+
+        // variables are named by their scope, temps by their temp id
+        variableNames = new String[varTable.getVariableTable().size()];
+        int tempId = 0;
+        for(int i = 0; i < variableNames.length; i++){
+            StaticVariableTableItem item = varTable.getItem(i);
+            if(item.getScope() < 0){
+                variableNames[i] = "temp " + tempId;
+                tempId++;
+            }
+            else{
+                variableNames[i] = item.getVar() + "@" + item.getScope();
+            }
+        }
+
+        // a label goes where each jump table item's branch lands
+        if(instructions != null){
+            for(MachineInstruction instruction: instructions){
+                Relocation relocation = instruction.getRelocation();
+                if(relocation != null && relocation.getKind() == Relocation.JUMP_DISTANCE){
+                    int target = branchTarget(instruction);
+                    String label = jumpTable.getItem(relocation.getIndex()).getTemp();
+                    if(labels[target] == null){
+                        labels[target] = label;
+                    }
+                    else{
+                        labels[target] += ", " + label;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the listing of the code, static variables, and heap
+     * @return listing text
+     */
+    public String getListing(){
+        StringBuilder listing = new StringBuilder();
+        if(instructions == null){
+            return "Code can't be decoded\n";
+        }
+
+        int entry = 0;
+        for(int i = 0; i < instructions.size(); i++){
+            MachineInstruction instruction = instructions.get(i);
+            int offset = instruction.getOffset();
+            // the source statement above the first instruction generated for it
+            if(entry < sourceMap.size() && sourceMap.getStart(entry) == offset){
+                listing.append("; ").append(SourceMap.describe(sourceMap.getStatement(entry))).append('\n');
+                entry++;
+            }
+            if(labels[offset] != null){
+                listing.append(labels[offset]).append(":\n");
+            }
+
+            StringBuilder bytes = new StringBuilder();
+            for(int b = 0; b < instruction.getLength(); b++){
+                bytes.append(hexByte(image[offset + b] & 0xFF)).append(' ');
+            }
+            String line = String.format("  %s: %-10s%-6s%-10s", hexByte(offset), bytes.toString(),
+                    mnemonic(instruction.getOpCode()), operandText(instruction));
+            String comment = comment(instruction, i);
+            if(!comment.isEmpty()){
+                line += "; " + comment;
+            }
+            listing.append(line.replaceAll("\\s+$", "")).append('\n');
+        }
+
+        listing.append("\nStatic Variables\n");
+        for(int i = 0; i < variableNames.length; i++){
+            listing.append("  ").append(hexByte(varTable.getItem(i).getAddress())).append(": ")
+                    .append(variableNames[i]).append(" (").append(varTable.getItem(i).getTemp()).append(")\n");
+        }
+
+        listing.append("\nHeap\n");
+        int start = heapStart;
+        for(int address = heapStart; address < image.length; address++){
+            if(image[address] == 0x00){
+                listing.append("  ").append(hexByte(start)).append(": \"").append(heapText(start)).append("\"\n");
+                start = address + 1;
+            }
+        }
+        return listing.toString();
+    }
+
+    /**
+     * Get the assembly mnemonic of an op code
+     * @param opCode
+     * @return mnemonic
+     */
+    public static String mnemonic(int opCode){
+        switch(opCode){
+            case Emitter.BRK:
+                return "BRK";
+            case Emitter.ADC:
+                return "ADC";
+            case Emitter.STA:
+                return "STA";
+            case Emitter.LDY_CONST:
+            case Emitter.LDY_MEM:
+                return "LDY";
+            case Emitter.LDX_CONST:
+            case Emitter.LDX_MEM:
+                return "LDX";
+            case Emitter.LDA_CONST:
+            case Emitter.LDA_MEM:
+                return "LDA";
+            case Emitter.BNE:
+                return "BNE";
+            case Emitter.CPX:
+                return "CPX";
+            case Emitter.NOP:
+                return "NOP";
+            case Emitter.INC:
+                return "INC";
+            case Emitter.SYS:
+                return "SYS";
+            default:
+                return "???";
+        }
+    }
+
+    /**
+     * Write the operand of an instruction in assembly syntax (#$01 for a constant, $007E for an address, and the
+     * target address for a branch)
+     * @param instruction
+     * @return operand text (empty if none)
+     */
+    private String operandText(MachineInstruction instruction){
+        int offset = instruction.getOffset();
+        switch(instruction.getLength()){
+            case 2:
+                if(instruction.getOpCode() == Emitter.BNE){
+                    return "$" + hexByte(branchTarget(instruction));
+                }
+                return "#$" + hexByte(image[offset + 1] & 0xFF);
+            case 3:
+                return "$" + hexByte(image[offset + 2] & 0xFF) + hexByte(image[offset + 1] & 0xFF);
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Explain the operand of an instruction: the static variable or heap string an address is, the heap string a
+     * constant points to, the label a branch goes to, and what a system call prints
+     * @param instruction, index of instruction in the code
+     * @return comment (empty if nothing to explain)
+     */
+    private String comment(MachineInstruction instruction, int index){
+        Relocation relocation = instruction.getRelocation();
+        int opCode = instruction.getOpCode();
+        if(relocation != null && relocation.getKind() == Relocation.STATIC_ADDRESS){
+            return variableNames[relocation.getIndex()];
+        }
+        if(relocation != null){
+            return labels[branchTarget(instruction)];
+        }
+        if(opCode == Emitter.BNE){
+            return "skip " + (image[instruction.getOffset() + 1] & 0xFF) + " bytes";
+        }
+        if(instruction.getLength() == 3){
+            return heapComment(image[instruction.getOffset() + 1] & 0xFF);
+        }
+        // loads of a heap string's address (string values, and true and false)
+        if(instruction.getLength() == 2){
+            int value = image[instruction.getOffset() + 1] & 0xFF;
+            if(isHeapString(value)){
+                return "\"" + heapText(value) + "\"";
+            }
+        }
+        if(opCode == Emitter.SYS){
+            int call = systemCall(index);
+            if(call == 0x01){
+                return "print the integer in Y";
+            }
+            if(call == 0x02){
+                return "print the string at Y";
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Find the system call a SYS makes from the last constant loaded into X before it (code generation leaves the
+     * load out when X already holds the call), without looking back past a jump label
+     * @param index of SYS instruction
+     * @return value of X (-1 if not known)
+     */
+    private int systemCall(int index){
+        for(int i = index - 1; i >= 0; i--){
+            MachineInstruction previous = instructions.get(i);
+            if(previous.getOpCode() == Emitter.LDX_CONST){
+                return previous.getOperand();
+            }
+            if(previous.getOpCode() == Emitter.LDX_MEM || labels[instructions.get(i + 1).getOffset()] != null){
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Explain an address in the heap by the string it is in
+     * @param address in memory
+     * @return comment (empty if not in the heap)
+     */
+    private String heapComment(int address){
+        if(address < heapStart){
+            return "";
+        }
+        int start = address;
+        while(start > heapStart && image[start - 1] != 0x00){
+            start--;
+        }
+        String text = heapText(start);
+        if(address == start){
+            return "\"" + text + "\"";
+        }
+        if(address == start + text.length()){
+            return "end of \"" + text + "\"";
+        }
+        return "\"" + text + "\" + " + (address - start);
+    }
+
+    /**
+     * Check if an address is the start of a heap string
+     * @param address in memory
+     * @return true if a string starts there
+     */
+    private boolean isHeapString(int address){
+        return address >= heapStart && address < image.length && (address == heapStart || image[address - 1] == 0x00);
+    }
+
+    /**
+     * Read the 00 terminated heap string at an address
+     * @param address of string
+     * @return text
+     */
+    private String heapText(int address){
+        StringBuilder text = new StringBuilder();
+        for(int i = address; i < image.length && image[i] != 0x00; i++){
+            text.append((char) (image[i] & 0xFF));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Get the address a branch goes to (the distance counts from the end of the branch and wraps around)
+     * @param branch instruction
+     * @return target address
+     */
+    private int branchTarget(MachineInstruction branch){
+        return (branch.getOffset() + 2 + (image[branch.getOffset() + 1] & 0xFF)) % Emitter.MEMORY_SIZE;
+    }
+
+    /**
+     * format a value as a two digit hex string
+     * @param value to format
+     * @return hex string
+     */
+    private String hexByte(int value){
+        String hex = Integer.toHexString(value).toUpperCase();
+        if(hex.length() < 2){
+            hex = "0" + hex;
+        }
+        return hex;
+    }
+}
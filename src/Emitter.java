@@ -0,0 +1,486 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class builds the 256 byte 6502a memory image for code generation. Code is written upward from address 00 and
+ * the heap is written downward from the top of memory, so nothing is ever copied or prepended while generating. Heap
+ * strings are interned, so a string literal used many times only takes heap space once.
+ * Static variable and jump placeholders are recorded as relocations when they are emitted and filled in with a single
+ * pass over the relocation list once addresses and jump distances are known.
+ *
+ * The emitter keeps track of what the registers hold and leaves out loads of a value a register already holds (and
+ * stores of the accumulator back to where it came from). Code generation marks the targets of its jumps, where the
+ * registers are forgotten. Targets of the fixed D0 skips are found by the emitter itself, and nothing is left out
+ * inside a skip so its distance stays right.
+ *
+ * @author Emily Doran
+ *
+ */
+public class Emitter {
+
+    public static final int MEMORY_SIZE = 256;
+
+    // 6502a op codes
+    public static final int BRK = 0x00;
+    public static final int ADC = 0x6D;
+    public static final int STA = 0x8D;
+    public static final int LDY_CONST = 0xA0;
+    public static final int LDX_CONST = 0xA2;
+    public static final int LDA_CONST = 0xA9;
+    public static final int LDY_MEM = 0xAC;
+    public static final int LDA_MEM = 0xAD;
+    public static final int LDX_MEM = 0xAE;
+    public static final int BNE = 0xD0;
+    public static final int CPX = 0xEC;
+    public static final int NOP = 0xEA;
+    public static final int INC = 0xEE;
+    public static final int SYS = 0xFF;
+
+    private byte[] image = new byte[MEMORY_SIZE];
+    private int codeSize = 0;
+    private int heapStart = MEMORY_SIZE;
+
+    // operands waiting to be backpatched, in code order
+    private ArrayList<Relocation> relocations = new ArrayList<Relocation>();
+
+    // strings stored in the heap and their addresses, from the top of memory down
+    private ArrayList<String> heapStrings = new ArrayList<String>();
+    private ArrayList<Integer> heapAddresses = new ArrayList<Integer>();
+
+    // what the registers hold, and the targets of fixed distance branches not yet reached
+    private RegisterTracker registers = new RegisterTracker();
+    private ArrayList<Integer> skipTargets = new ArrayList<Integer>();
+    private boolean trackRegisters = true;
+    private int loadsRemoved = 0;
+    private int bytesRemoved = 0;
+
+    // source statement of the instruction starting at each code offset, and of the instructions emitted next
+    private Node[] sources = new Node[MEMORY_SIZE];
+    private Node source;
+
+    /**
+     * Emit an instruction without an operand
+     * @param opCode to emit
+     */
+    public void emit(int opCode){
+        reachSkipTargets();
+        emitOpCode(opCode);
+    }
+
+    /**
+     * Emit an instruction with a one byte constant or branch operand
+     * @param opCode to emit, operand byte
+     */
+    public void emit(int opCode, int operand){
+        reachSkipTargets();
+        int register = loadRegister(opCode);
+        if(opCode == LDA_CONST || opCode == LDX_CONST || opCode == LDY_CONST){
+            if(canRemove() && registers.holdsConstant(register, operand)){
+                removed(2);
+                return;
+            }
+            registers.loadConstant(register, operand);
+        }
+        emitOpCode(opCode);
+        emitByte(operand);
+        // forward skip over the next few instructions
+        if(opCode == BNE && operand < 0x80){
+            skipTargets.add(codeSize + operand);
+        }
+    }
+
+    /**
+     * Emit an instruction with a two byte memory address operand that is already known
+     * @param opCode to emit, address in memory
+     */
+    public void emitAbsolute(int opCode, int address){
+        reachSkipTargets();
+        if(trackMemoryAccess(opCode, address)){
+            removed(3);
+            return;
+        }
+        emitOpCode(opCode);
+        emitByte(address);
+        emitByte(0x00);
+    }
+
+    /**
+     * Emit an instruction with a two byte static variable address that will be backpatched
+     * @param opCode to emit, variable static variable table item
+     */
+    public void emit(int opCode, StaticVariableTableItem variable){
+        reachSkipTargets();
+        // static variables are told apart from known addresses by their table index
+        if(trackMemoryAccess(opCode, MEMORY_SIZE + variable.getIndex())){
+            removed(3);
+            return;
+        }
+        emitOpCode(opCode);
+        addRelocation(variable.getTemp(), variable.getIndex(), Relocation.STATIC_ADDRESS);
+        emitByte(0x00);
+        emitByte(0x00);
+    }
+
+    /**
+     * Emit a branch with a one byte jump distance that will be backpatched
+     * @param opCode to emit, jump table item
+     */
+    public void emitJump(int opCode, JumpTableItem jump){
+        reachSkipTargets();
+        emitOpCode(opCode);
+        addRelocation(jump.getTemp(), jump.getId(), Relocation.JUMP_DISTANCE);
+        emitByte(0x00);
+    }
+
+    /**
+     * Set the source statement of the instructions emitted next
+     * @param source statement node (null if none)
+     */
+    public void setSource(Node source){
+        this.source = source;
+    }
+
+    /**
+     * Get the source statement of the instruction starting at a code offset
+     * @param offset of instruction
+     * @return statement node (null if none)
+     */
+    public Node getSource(int offset){
+        return sources[offset];
+    }
+
+    /**
+     * Mark the next instruction as the target of a jump, so nothing is assumed about the registers there
+     */
+    public void markBranchTarget(){
+        registers.invalidate();
+    }
+
+    /**
+     * Turn leaving out redundant loads on or off
+     * @param on true to track registers
+     */
+    public void setTrackRegisters(boolean on){
+        trackRegisters = on;
+        registers.invalidate();
+    }
+
+    /**
+     * Get the number of loads and stores left out because the register or memory already held the value
+     * @return instructions left out
+     */
+    public int getLoadsRemoved(){
+        return loadsRemoved;
+    }
+
+    /**
+     * Get the number of code bytes saved by leaving out redundant loads and stores
+     * @return bytes saved
+     */
+    public int getBytesRemoved(){
+        return bytesRemoved;
+    }
+
+    /**
+     * Store a null terminated string in the heap. A string that is already in the heap, or is the end of a string in
+     * the heap ("bye" in "goodbye"), is not stored again. If the lowest string in the heap is the end of the new
+     * string, only the rest of the new string is written below it.
+     * @param value to store
+     * @return heap address of the string
+     */
+    public int storeHeap(String value){
+        // share the end of a string already in the heap
+        for(int i = 0; i < heapStrings.size(); i++){
+            String stored = heapStrings.get(i);
+            if(stored.endsWith(value)){
+                return heapAddresses.get(i) + stored.length() - value.length();
+            }
+        }
+
+        int end = value.length();
+        // the lowest string is the end of the new string -> write the new string's beginning right below it
+        int last = heapStrings.size() - 1;
+        if(last >= 0 && heapAddresses.get(last) == heapStart && value.endsWith(heapStrings.get(last))){
+            end = value.length() - heapStrings.get(last).length();
+        }
+        else{
+            heapStart--;
+            writeHeap(heapStart, 0x00);
+        }
+        for(int i = end - 1; i >= 0; i--){
+            heapStart--;
+            writeHeap(heapStart, value.charAt(i));
+        }
+
+        heapStrings.add(value);
+        heapAddresses.add(heapStart);
+        return heapStart;
+    }
+
+    /**
+     * Get the number of bytes an instruction takes
+     * @param opCode of instruction
+     * @return length in bytes (0 for an unknown op code)
+     */
+    public static int instructionLength(int opCode){
+        switch(opCode){
+            case BRK:
+            case NOP:
+            case SYS:
+                return 1;
+            case LDY_CONST:
+            case LDX_CONST:
+            case LDA_CONST:
+            case BNE:
+                return 2;
+            case ADC:
+            case STA:
+            case LDY_MEM:
+            case LDA_MEM:
+            case LDX_MEM:
+            case CPX:
+            case INC:
+                return 3;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Decode the code into instructions, attaching each placeholder operand to its instruction
+     * @return instructions in code order (null if the code ran into the heap or can't be decoded)
+     */
+    public ArrayList<MachineInstruction> decode(){
+        if(codeSize > heapStart){
+            return null;
+        }
+        ArrayList<MachineInstruction> instructions = new ArrayList<MachineInstruction>();
+        int nextRelocation = 0;
+        int offset = 0;
+        while(offset < codeSize){
+            int opCode = image[offset] & 0xFF;
+            int length = instructionLength(opCode);
+            if(length == 0 || offset + length > codeSize){
+                return null;
+            }
+            Relocation relocation = null;
+            if(nextRelocation < relocations.size() && relocations.get(nextRelocation).getOffset() < offset + length){
+                relocation = relocations.get(nextRelocation);
+                nextRelocation++;
+            }
+            int operand = 0;
+            if(length > 1){
+                operand = image[offset + 1] & 0xFF;
+            }
+            MachineInstruction instruction = new MachineInstruction(opCode, operand, offset, relocation);
+            instruction.setSource(sources[offset]);
+            instructions.add(instruction);
+            offset += length;
+        }
+        return instructions;
+    }
+
+    /**
+     * Replace the code with a list of instructions (heap strings are not moved)
+     * @param instructions in code order
+     */
+    public void replaceCode(ArrayList<MachineInstruction> instructions){
+        codeSize = 0;
+        relocations.clear();
+        registers.invalidate();
+        skipTargets.clear();
+        for(MachineInstruction instruction: instructions){
+            Relocation relocation = instruction.getRelocation();
+            instruction.setOffset(codeSize);
+            source = instruction.getSource();
+            emitOpCode(instruction.getOpCode());
+            if(relocation != null){
+                addRelocation(relocation.getSymbol(), relocation.getIndex(), relocation.getKind());
+                instruction.setRelocation(relocations.get(relocations.size() - 1));
+            }
+            if(instruction.getLength() > 1){
+                emitByte(instruction.getOperand());
+            }
+            if(instruction.getLength() > 2){
+                emitByte(0x00);
+            }
+        }
+        source = null;
+    }
+
+    /**
+     * Backpatch every relocation in one pass
+     * @param varTable with each static variable's address, jumpTable with each jump's distance
+     */
+    public void resolveRelocations(StaticVariableTable varTable, JumpTable jumpTable){
+        for(Relocation relocation: relocations){
+            int value;
+            if(relocation.getKind() == Relocation.STATIC_ADDRESS){
+                value = varTable.getItem(relocation.getIndex()).getAddress();
+            }
+            else{
+                value = jumpTable.getItem(relocation.getIndex()).getDistance();
+            }
+            image[relocation.getOffset()] = (byte) value;
+        }
+    }
+
+    /**
+     * Get the operands waiting to be backpatched
+     * @return relocation list in code order
+     */
+    public ArrayList<Relocation> getRelocations(){
+        return relocations;
+    }
+
+    /**
+     * Get the number of code bytes emitted
+     * @return code size
+     */
+    public int getCodeSize(){
+        return codeSize;
+    }
+
+    /**
+     * Get the lowest address used by the heap
+     * @return heap start
+     */
+    public int getHeapStart(){
+        return heapStart;
+    }
+
+    /**
+     * Get the memory image (code, zero filled free space, then heap)
+     * @return memory image
+     */
+    public byte[] getImage(){
+        // clear anything left between the code and the heap by discarded code or heap strings
+        if(codeSize <= heapStart){
+            Arrays.fill(image, codeSize, heapStart, (byte) 0x00);
+        }
+        return image;
+    }
+
+    /**
+     * Get the register an instruction loads
+     * @param opCode of instruction
+     * @return RegisterTracker A, X, or Y (-1 if it doesn't load a register)
+     */
+    private int loadRegister(int opCode){
+        switch(opCode){
+            case LDA_CONST:
+            case LDA_MEM:
+                return RegisterTracker.A;
+            case LDX_CONST:
+            case LDX_MEM:
+                return RegisterTracker.X;
+            case LDY_CONST:
+            case LDY_MEM:
+                return RegisterTracker.Y;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Update the registers for an instruction with a memory operand, or find that it can be left out
+     * @param opCode of instruction, key of memory location
+     * @return true if the instruction would not change anything
+     */
+    private boolean trackMemoryAccess(int opCode, int key){
+        int register = loadRegister(opCode);
+        if(register != -1){
+            if(canRemove() && registers.holdsMemory(register, key)){
+                return true;
+            }
+            registers.loadMemory(register, key);
+        }
+        else if(opCode == STA){
+            // the memory location already holds the accumulator's value
+            if(canRemove() && registers.holdsMemory(RegisterTracker.A, key)){
+                return true;
+            }
+            registers.storeAccumulator(key);
+        }
+        else if(opCode == ADC){
+            registers.clobber(RegisterTracker.A);
+        }
+        else if(opCode == INC){
+            registers.writeMemory(key);
+        }
+        return false;
+    }
+
+    /**
+     * Check if an instruction can be left out here (not inside a fixed distance skip)
+     * @return true if instructions can be left out
+     */
+    private boolean canRemove(){
+        return trackRegisters && skipTargets.isEmpty();
+    }
+
+    /**
+     * Count an instruction that was left out
+     * @param length of instruction
+     */
+    private void removed(int length){
+        loadsRemoved++;
+        bytesRemoved += length;
+    }
+
+    /**
+     * Forget the registers when the next instruction is the target of a fixed distance skip
+     */
+    private void reachSkipTargets(){
+        for(int i = skipTargets.size() - 1; i >= 0; i--){
+            if(skipTargets.get(i) <= codeSize){
+                skipTargets.remove(i);
+                registers.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Write the op code of the next instruction and record the source statement it was generated for
+     * @param opCode to write
+     */
+    private void emitOpCode(int opCode){
+        if(codeSize < MEMORY_SIZE){
+            sources[codeSize] = source;
+        }
+        emitByte(opCode);
+    }
+
+    /**
+     * Write the next code byte (bytes that would run into the heap are counted but not written, the memory limit
+     * check will fail the program)
+     * @param value byte to write
+     */
+    private void emitByte(int value){
+        if(codeSize < heapStart){
+            image[codeSize] = (byte) value;
+        }
+        codeSize++;
+    }
+
+    /**
+     * Write a heap byte (bytes that would run into the code are not written, the memory limit check will fail the
+     * program)
+     * @param address to write, value byte to write
+     */
+    private void writeHeap(int address, int value){
+        if(address >= codeSize && address >= 0){
+            image[address] = (byte) value;
+        }
+    }
+
+    /**
+     * Record a relocation for the operand at the next code byte
+     * @param placeholder name, index of placeholder in its table, kind of operand
+     */
+    private void addRelocation(String placeholder, int index, int kind){
+        if(codeSize < heapStart){
+            relocations.add(new Relocation(codeSize, placeholder, index, kind));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * This class executes a 256 byte 6502a memory image the way the course operating system does, so generated code can
+ * be checked without pasting it into the browser. It supports the op codes code generation emits:
+ * A9 AD 8D 6D A2 AE A0 AC EA 00 EC D0 EE FF
+ * and the system calls X = 01 (print the integer in Y) and X = 02 (print the 00 terminated string at address Y).
+ * Printed output is captured instead of written to the console.
+ *
+ * CPX is the only instruction that sets the Z flag, ADC adds without a carry, and the program counter and branches
+ * wrap around at the end of memory like the operating system's do. Execution stops at a BRK, at an op code or system
+ * call that isn't supported, at an address past the end of memory, or after a limit of instructions, since a program
+ * can loop forever.
+ *
+ * @author Emily Doran
+ *
+ */
+public class Emulator {
+
+    public static final int DEFAULT_STEP_LIMIT = 100000;
+
+    // execution states
+    public static final int RUNNING = 0;
+    public static final int HALTED = 1;
+    public static final int STEP_LIMIT = 2;
+    public static final int INVALID_OP_CODE = 3;
+    public static final int INVALID_ADDRESS = 4;
+    public static final int INVALID_SYSTEM_CALL = 5;
+
+    private int[] memory = new int[Emitter.MEMORY_SIZE];
+    private int a = 0;
+    private int x = 0;
+    private int y = 0;
+    private boolean zero = false;
+    private int pc = 0;
+
+    private int state = RUNNING;
+    // address of the instruction that stopped execution with an error
+    private int errorAddress = -1;
+    private int steps = 0;
+    private StringBuilder output = new StringBuilder();
+
+    /**
+     * Creates a new instance of Emulator with a copy of a memory image
+     * @param image 256 byte memory image
+     */
+    public Emulator(byte[] image){
+        for(int i = 0; i < memory.length; i++){
+            memory[i] = image[i] & 0xFF;
+        }
+    }
+
+    /**
+     * Execute instructions until the program stops or the step limit is reached
+     * @param stepLimit most instructions to execute
+     * @return execution state
+     */
+    public int run(int stepLimit){
+        while(state == RUNNING){
+            if(steps >= stepLimit){
+                state = STEP_LIMIT;
+                break;
+            }
+            step();
+        }
+        return state;
+    }
+
+    /**
+     * Execute one instruction
+     * @return true if execution can continue
+     */
+    public boolean step(){
+        if(state != RUNNING){
+            return false;
+        }
+        int address = pc;
+        int opCode = memory[pc];
+        steps++;
+        switch(opCode){
+            case Emitter.LDA_CONST:
+                a = memory[next(1)];
+                break;
+            case Emitter.LDA_MEM:
+                a = memory[operandAddress()];
+                break;
+            case Emitter.STA:
+                int stored = operandAddress();
+                if(state == RUNNING){
+                    memory[stored] = a;
+                }
+                break;
+            case Emitter.ADC:
+                a = (a + memory[operandAddress()]) & 0xFF;
+                break;
+            case Emitter.LDX_CONST:
+                x = memory[next(1)];
+                break;
+            case Emitter.LDX_MEM:
+                x = memory[operandAddress()];
+                break;
+            case Emitter.LDY_CONST:
+                y = memory[next(1)];
+                break;
+            case Emitter.LDY_MEM:
+                y = memory[operandAddress()];
+                break;
+            case Emitter.NOP:
+                break;
+            case Emitter.BRK:
+                state = HALTED;
+                return false;
+            case Emitter.CPX:
+                zero = x == memory[operandAddress()];
+                break;
+            case Emitter.BNE:
+                if(!zero){
+                    // the distance counts from the end of the branch and wraps around
+                    pc = (pc + 2 + memory[next(1)]) % Emitter.MEMORY_SIZE;
+                    return true;
+                }
+                break;
+            case Emitter.INC:
+                int incremented = operandAddress();
+                if(state == RUNNING){
+                    memory[incremented] = (memory[incremented] + 1) & 0xFF;
+                }
+                break;
+            case Emitter.SYS:
+                systemCall();
+                break;
+            default:
+                state = INVALID_OP_CODE;
+                break;
+        }
+
+        if(state != RUNNING){
+            errorAddress = address;
+            return false;
+        }
+        pc = (address + Emitter.instructionLength(opCode)) % Emitter.MEMORY_SIZE;
+        return true;
+    }
+
+    /**
+     * Get the output printed by system calls so far
+     * @return output
+     */
+    public String getOutput(){
+        return output.toString();
+    }
+
+    /**
+     * Get the execution state
+     * @return RUNNING, HALTED, STEP_LIMIT, INVALID_OP_CODE, INVALID_ADDRESS, or INVALID_SYSTEM_CALL
+     */
+    public int getState(){
+        return state;
+    }
+
+    /**
+     * Get the number of instructions executed, including the one that stopped execution
+     * @return steps
+     */
+    public int getSteps(){
+        return steps;
+    }
+
+    /**
+     * Get the address of the next instruction
+     * @return program counter
+     */
+    public int getPC(){
+        return pc;
+    }
+
+    /**
+     * Get a byte of memory
+     * @param address in memory
+     * @return byte value
+     */
+    public int getMemory(int address){
+        return memory[address];
+    }
+
+    /**
+     * Describe why execution stopped
+     * @return message
+     */
+    public String getStateMessage(){
+        switch(state){
+            case RUNNING:
+                return "Still running after " + steps + " instruction(s)";
+            case HALTED:
+                return "Halted after " + steps + " instruction(s)";
+            case STEP_LIMIT:
+                return "Stopped after " + steps + " instruction(s) (the program may loop forever)";
+            case INVALID_OP_CODE:
+                return "Stopped at invalid op code " + hexByte(memory[errorAddress]) + " at address " +
+                        hexByte(errorAddress);
+            case INVALID_ADDRESS:
+                return "Stopped at address past the end of memory used at address " + hexByte(errorAddress);
+            default:
+                return "Stopped at invalid system call X = " + hexByte(x) + " at address " + hexByte(errorAddress);
+        }
+    }
+
+    /**
+     * Run the system call selected by X
+     */
+    private void systemCall(){
+        if(x == 0x01){
+            output.append(y);
+        }
+        else if(x == 0x02){
+            // the string ends at a 00 byte, stop at the end of memory if it never does
+            for(int address = y; address < memory.length && memory[address] != 0x00; address++){
+                output.append((char) memory[address]);
+            }
+        }
+        else{
+            state = INVALID_SYSTEM_CALL;
+        }
+    }
+
+    /**
+     * Get the address of a byte after the current instruction's op code
+     * @param offset from the op code
+     * @return address
+     */
+    private int next(int offset){
+        return (pc + offset) % Emitter.MEMORY_SIZE;
+    }
+
+    /**
+     * Get the two byte little endian address operand of the current instruction
+     * @return address (0 if past the end of memory, which stops execution before anything is stored)
+     */
+    private int operandAddress(){
+        int address = memory[next(1)] | (memory[next(2)] << 8);
+        if(address >= Emitter.MEMORY_SIZE){
+            state = INVALID_ADDRESS;
+            return 0;
+        }
+        return address;
+    }
+
+    /**
+     * format a value as a two digit hex string
+     * @param value to format
+     * @return hex string
+     */
+    private String hexByte(int value){
+        String hex = Integer.toHexString(value).toUpperCase();
+        if(hex.length() < 2){
+            hex = "0" + hex;
+        }
+        return hex;
+    }
+}
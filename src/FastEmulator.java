@@ -0,0 +1,289 @@
+/**
+ * This class executes a 256 byte 6502a memory image like Emulator, but is built to run the same image many times
+ * quickly (benchmarks and fuzzing). Every address is decoded once into an op code, a ready to use operand (the
+ * constant, the memory address, or a branch's target address), and the address of the next instruction, and
+ * execution dispatches on the decoded arrays with a single switch and nothing allocated per instruction.
+ *
+ * Code can store into itself, so a store or increment marks the decoded instructions that could cover the changed
+ * byte (the ones starting at it and up to two bytes before it) to be decoded again the next time they run. Running
+ * again after reset starts over from the original image.
+ *
+ * Execution time of each run is added up, so the speed of the core can be tracked in instructions per second.
+ *
+ * @author Emily Doran
+ *
+ */
+public class FastEmulator {
+
+    // decoded op code of an instruction whose address operand is past the end of memory
+    private static final int BAD_ADDRESS = -1;
+
+    private int[] image = new int[Emitter.MEMORY_SIZE];
+    private int[] memory = new int[Emitter.MEMORY_SIZE];
+
+    // decoded instruction at each address
+    private int[] opCodes = new int[Emitter.MEMORY_SIZE];
+    private int[] operands = new int[Emitter.MEMORY_SIZE];
+    private int[] nextAddresses = new int[Emitter.MEMORY_SIZE];
+    private boolean[] decoded = new boolean[Emitter.MEMORY_SIZE];
+
+    private int a;
+    private int x;
+    private int y;
+    private boolean zero;
+    private int pc;
+
+    private int state;
+    private long steps;
+    private StringBuilder output = new StringBuilder();
+
+    // instructions executed and time taken over every run
+    private long totalSteps = 0;
+    private long totalNanos = 0;
+
+    /**
+     * Creates a new instance of FastEmulator with a copy of a memory image
+     * @param image 256 byte memory image
+     */
+    public FastEmulator(byte[] image){
+        for(int i = 0; i < this.image.length; i++){
+            this.image[i] = image[i] & 0xFF;
+        }
+        reset();
+    }
+
+    /**
+     * Start over from the original image, keeping the decoded instructions that are still valid for it
+     */
+    public void reset(){
+        for(int i = 0; i < memory.length; i++){
+            if(memory[i] != image[i]){
+                memory[i] = image[i];
+                invalidate(i);
+            }
+        }
+        a = 0;
+        x = 0;
+        y = 0;
+        zero = false;
+        pc = 0;
+        state = Emulator.RUNNING;
+        steps = 0;
+        output.setLength(0);
+    }
+
+    /**
+     * Execute instructions until the program stops or the step limit is reached
+     * @param stepLimit most instructions to execute
+     * @return execution state (same states as Emulator)
+     */
+    public int run(long stepLimit){
+        long start = System.nanoTime();
+        int[] memory = this.memory;
+        int[] opCodes = this.opCodes;
+        int[] operands = this.operands;
+        int[] nextAddresses = this.nextAddresses;
+        boolean[] decoded = this.decoded;
+        int a = this.a;
+        int x = this.x;
+        int y = this.y;
+        boolean zero = this.zero;
+        int pc = this.pc;
+        long steps = this.steps;
+        int state = this.state;
+
+        while(state == Emulator.RUNNING){
+            if(steps >= stepLimit){
+                state = Emulator.STEP_LIMIT;
+                break;
+            }
+            if(!decoded[pc]){
+                decode(pc);
+            }
+            steps++;
+            int operand = operands[pc];
+            switch(opCodes[pc]){
+                case Emitter.LDA_CONST:
+                    a = operand;
+                    break;
+                case Emitter.LDA_MEM:
+                    a = memory[operand];
+                    break;
+                case Emitter.STA:
+                    memory[operand] = a;
+                    invalidate(operand);
+                    break;
+                case Emitter.ADC:
+                    a = (a + memory[operand]) & 0xFF;
+                    break;
+                case Emitter.LDX_CONST:
+                    x = operand;
+                    break;
+                case Emitter.LDX_MEM:
+                    x = memory[operand];
+                    break;
+                case Emitter.LDY_CONST:
+                    y = operand;
+                    break;
+                case Emitter.LDY_MEM:
+                    y = memory[operand];
+                    break;
+                case Emitter.NOP:
+                    break;
+                case Emitter.BRK:
+                    state = Emulator.HALTED;
+                    continue;
+                case Emitter.CPX:
+                    zero = x == memory[operand];
+                    break;
+                case Emitter.BNE:
+                    if(!zero){
+                        pc = operand;
+                        continue;
+                    }
+                    break;
+                case Emitter.INC:
+                    memory[operand] = (memory[operand] + 1) & 0xFF;
+                    invalidate(operand);
+                    break;
+                case Emitter.SYS:
+                    if(x == 0x01){
+                        output.append(y);
+                    }
+                    else if(x == 0x02){
+                        for(int address = y; address < memory.length && memory[address] != 0x00; address++){
+                            output.append((char) memory[address]);
+                        }
+                    }
+                    else{
+                        state = Emulator.INVALID_SYSTEM_CALL;
+                        continue;
+                    }
+                    break;
+                case BAD_ADDRESS:
+                    state = Emulator.INVALID_ADDRESS;
+                    continue;
+                default:
+                    state = Emulator.INVALID_OP_CODE;
+                    continue;
+            }
+            pc = nextAddresses[pc];
+        }
+
+        this.a = a;
+        this.x = x;
+        this.y = y;
+        this.zero = zero;
+        this.pc = pc;
+        totalSteps += steps - this.steps;
+        this.steps = steps;
+        this.state = state;
+        totalNanos += System.nanoTime() - start;
+        return state;
+    }
+
+    /**
+     * Run the image from the start over and over for at least a length of time
+     * @param stepLimit most instructions to execute in each run, nanos least time to run for
+     * @return number of runs
+     */
+    public int benchmark(long stepLimit, long nanos){
+        long end = System.nanoTime() + nanos;
+        int runs = 0;
+        do{
+            reset();
+            run(stepLimit);
+            runs++;
+        } while(System.nanoTime() < end);
+        return runs;
+    }
+
+    /**
+     * Forget the instructions executed and time taken so far
+     */
+    public void resetTiming(){
+        totalSteps = 0;
+        totalNanos = 0;
+    }
+
+    /**
+     * Get the speed of the core over every run since the timing was last reset
+     * @return instructions executed per second (0 if nothing ran)
+     */
+    public long getInstructionsPerSecond(){
+        if(totalNanos == 0){
+            return 0;
+        }
+        return (long) (totalSteps * 1000000000.0 / totalNanos);
+    }
+
+    /**
+     * Get the number of instructions executed since the timing was last reset
+     * @return instructions
+     */
+    public long getTotalSteps(){
+        return totalSteps;
+    }
+
+    /**
+     * Get the output printed by system calls in the current run
+     * @return output
+     */
+    public String getOutput(){
+        return output.toString();
+    }
+
+    /**
+     * Get the execution state of the current run
+     * @return state (same states as Emulator)
+     */
+    public int getState(){
+        return state;
+    }
+
+    /**
+     * Get the number of instructions executed in the current run, including the one that stopped execution
+     * @return steps
+     */
+    public long getSteps(){
+        return steps;
+    }
+
+    /**
+     * Decode the instruction starting at an address
+     * @param address of op code
+     */
+    private void decode(int address){
+        int opCode = memory[address];
+        int length = Emitter.instructionLength(opCode);
+        int operand = 0;
+        if(length == 2){
+            operand = memory[(address + 1) % Emitter.MEMORY_SIZE];
+            // a branch's operand is its target, the distance counts from the end of the branch and wraps around
+            if(opCode == Emitter.BNE){
+                operand = (address + 2 + operand) % Emitter.MEMORY_SIZE;
+            }
+        }
+        else if(length == 3){
+            operand = memory[(address + 1) % Emitter.MEMORY_SIZE] |
+                    (memory[(address + 2) % Emitter.MEMORY_SIZE] << 8);
+            if(operand >= Emitter.MEMORY_SIZE){
+                opCode = BAD_ADDRESS;
+            }
+        }
+        opCodes[address] = opCode;
+        operands[address] = operand;
+        nextAddresses[address] = (address + length) % Emitter.MEMORY_SIZE;
+        decoded[address] = true;
+    }
+
+    /**
+     * Mark the instructions that could cover a changed byte to be decoded again
+     * @param address of changed byte
+     */
+    private void invalidate(int address){
+        decoded[address] = false;
+        decoded[(address + Emitter.MEMORY_SIZE - 1) % Emitter.MEMORY_SIZE] = false;
+        decoded[(address + Emitter.MEMORY_SIZE - 2) % Emitter.MEMORY_SIZE] = false;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * This class stores one three-address intermediate code instruction. Each instruction has at most one destination
+ * and two sources, and control flow only goes through labels, gotos, and conditional branches that compare two
+ * operands.
+ *
+ * @author Emily Doran
+ *
+ */
+public class IRInstruction {
+
+    // dest = source1
+    public static final int COPY = 0;
+    // dest = source1 + source2
+    public static final int ADD = 1;
+    // dest = (source1 == source2) as a true/false heap address
+    public static final int EQUAL = 2;
+    // dest = (source1 != source2) as a true/false heap address
+    public static final int NOT_EQUAL = 3;
+    // print source1 as an integer
+    public static final int PRINT_INT = 4;
+    // print the string at heap address source1
+    public static final int PRINT_STRING = 5;
+    // label:
+    public static final int LABEL = 6;
+    // goto label
+    public static final int GOTO = 7;
+    // if source1 != source2 goto label
+    public static final int BRANCH_NOT_EQUAL = 8;
+
+    private int op;
+    private IROperand dest;
+    private IROperand source1;
+    private IROperand source2;
+    private int label;
+    // source statement the instruction was lowered from (null if none)
+    private Node statement;
+
+    public IRInstruction(int op, IROperand dest, IROperand source1, IROperand source2, int label){
+        this.op = op;
+        this.dest = dest;
+        this.source1 = source1;
+        this.source2 = source2;
+        this.label = label;
+    }
+
+    /**
+     * Get the source statement the instruction was lowered from
+     * @return statement node (null if none)
+     */
+    public Node getStatement(){
+        return statement;
+    }
+
+    /**
+     * Set the source statement the instruction was lowered from
+     * @param statement node
+     */
+    public void setStatement(Node statement){
+        this.statement = statement;
+    }
+
+    /**
+     * Get the operation
+     * @return op
+     */
+    public int getOp(){
+        return op;
+    }
+
+    /**
+     * Get the destination operand
+     * @return dest (null if the instruction doesn't write one)
+     */
+    public IROperand getDest(){
+        return dest;
+    }
+
+    /**
+     * Get the first source operand
+     * @return source1 (null if not used)
+     */
+    public IROperand getSource1(){
+        return source1;
+    }
+
+    /**
+     * Get the second source operand
+     * @return source2 (null if not used)
+     */
+    public IROperand getSource2(){
+        return source2;
+    }
+
+    /**
+     * Get the label defined or jumped to
+     * @return label id (-1 if not used)
+     */
+    public int getLabel(){
+        return label;
+    }
+
+    /**
+     * Point a goto or branch at another label
+     * @param label id
+     */
+    public void setLabel(int label){
+        this.label = label;
+    }
+
+    /**
+     * Check if the instruction is a goto or conditional branch
+     * @return true if it jumps to a label
+     */
+    public boolean isJump(){
+        return op == GOTO || op == BRANCH_NOT_EQUAL;
+    }
+
+    /**
+     * Get the string representation of the instruction
+     * @return instruction text
+     */
+    public String toString(){
+        switch(op){
+            case COPY:
+                return "    " + dest + " = " + source1;
+            case ADD:
+                return "    " + dest + " = " + source1 + " + " + source2;
+            case EQUAL:
+                return "    " + dest + " = " + source1 + " == " + source2;
+            case NOT_EQUAL:
+                return "    " + dest + " = " + source1 + " != " + source2;
+            case PRINT_INT:
+                return "    print_int " + source1;
+            case PRINT_STRING:
+                return "    print_string " + source1;
+            case LABEL:
+                return "L" + label + ":";
+            case GOTO:
+                return "    goto L" + label;
+            default:
+                return "    if " + source1 + " != " + source2 + " goto L" + label;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+import java.util.ArrayList;
+
+/**
+ * This class lowers the AST into three-address intermediate code. Each statement becomes a few IR instructions:
+ * expressions are broken up into temps, if and while statements become labels and conditional branches, and string
+ * and boolean values become constant heap addresses (strings are stored in the heap as they are lowered). Conditions,
+ * and comparisons with another comparison inside them, become branch chains that jump straight to their true and
+ * false targets.
+ *
+ * Variables are looked up in the scope snapshot of the statement they are used in. Declarations of variables that
+ * are never read, stores to them, and statements whose condition is always false are left out, and a declaration
+ * only initializes the variable if its default value can be read.
+ *
+ * @author Emily Doran
+ *
+ */
+public class IRLowering {
+
+    private IRProgram program = new IRProgram();
+    private DefiniteAssignmentAnalyzer definiteAssignment;
+    private StaticVariableTable varTable;
+    private Emitter emitter;
+    private boolean verboseMode;
+    private ArrayList<String> errors = new ArrayList<String>();
+
+    // heap addresses of the true and false strings, which are also the boolean values
+    private int trueAddress;
+    private int falseAddress;
+
+    /**
+     * Creates a new instance of IRLowering and lowers the AST
+     * @param ast to lower, definiteAssignment analysis of the AST, varTable to add declared variables to,
+     *            emitter to store strings in the heap of, verboseMode
+     */
+    public IRLowering(SyntaxTree ast, DefiniteAssignmentAnalyzer definiteAssignment, StaticVariableTable varTable,
+                      Emitter emitter, boolean verboseMode){
+        this.definiteAssignment = definiteAssignment;
+        this.varTable = varTable;
+        this.emitter = emitter;
+        this.verboseMode = verboseMode;
+
+        // add the true and false values to the heap
+        falseAddress = storeHeap("false");
+        trueAddress = storeHeap("true");
+
+        lowerBlock(ast.getRoot());
+    }
+
+    /**
+     * Get the lowered program
+     * @return IR program
+     */
+    public IRProgram getProgram(){
+        return program;
+    }
+
+    /**
+     * Get the problems found in the AST while lowering it
+     * @return error messages (empty if none)
+     */
+    public ArrayList<String> getErrors(){
+        return errors;
+    }
+
+    /**
+     * Lower each statement of a block
+     * @param block node
+     */
+    private void lowerBlock(Node block){
+        for(Node statement: block.getChildren()){
+            lowerStatement(statement);
+        }
+    }
+
+    /**
+     * Lower a statement, tagging its instructions with it (a nested statement tags its own, and the instructions of
+     * the enclosing statement after it are tagged with the enclosing statement again)
+     * @param statement node
+     */
+    private void lowerStatement(Node statement){
+        String name = statement.getName();
+        Node enclosing = program.getStatement();
+        if(!name.equals("BLOCK")){
+            program.setStatement(statement);
+        }
+
+        if(name.equals("VariableDeclaration")){
+            lowerDeclaration(statement);
+        }
+        else if(name.equals("Assign")){
+            lowerAssign(statement);
+        }
+        else if(name.equals("Print")){
+            Node expr = statement.getChildren().get(0);
+            IROperand value = lowerExpr(expr, statement);
+            if(getType(expr, statement).equals("int")){
+                program.addPrint(IRInstruction.PRINT_INT, value);
+            }
+            else{
+                program.addPrint(IRInstruction.PRINT_STRING, value);
+            }
+        }
+        else if(name.equals("If")){
+            lowerIf(statement);
+        }
+        else if(name.equals("While")){
+            lowerWhile(statement);
+        }
+        else if(name.equals("BLOCK")){
+            lowerBlock(statement);
+        }
+        program.setStatement(enclosing);
+    }
+
+    /**
+     * Lower a variable declaration: add the variable to the static variable table and store its default value if it
+     * can be read before the program assigns the variable
+     * @param statement VariableDeclaration node
+     */
+    private void lowerDeclaration(Node statement){
+        String type = statement.getChildren().get(0).getName();
+        String var = statement.getChildren().get(1).getName();
+        int scope = statement.getScopeSnapshot().getScopeNum();
+
+        // variable is never read -> don't give it a static slot or initialize it
+        if(!definiteAssignment.isRead(var.charAt(0), scope)){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Removing Variable Declaration of Unused Variable: " + var);
+            }
+            return;
+        }
+
+        StaticVariableTableItem item = varTable.addVariable(var.charAt(0), scope);
+
+        // variable is always assigned before it is read, so the default value store is dead
+        if(!definiteAssignment.needsDefaultInit(var.charAt(0), scope)){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Adding Variable Declaration of Variable: " + var +
+                        " (default initialization skipped, assigned before use)");
+            }
+            return;
+        }
+
+        // booleans start false, ints start 0, and strings start empty
+        IROperand value;
+        if(type.equals("boolean")){
+            value = IROperand.heapConstant(falseAddress, "false");
+        }
+        else if(type.equals("string")){
+            value = IROperand.heapConstant(storeHeap(""), "\"\"");
+        }
+        else{
+            value = IROperand.constant(0);
+        }
+        program.addCopy(IROperand.variable(item, var), value);
+
+        if(verboseMode) {
+            System.out.println("CODE GENERATION: Adding Variable Declaration of Variable: " + var);
+        }
+    }
+
+    /**
+     * Lower an assignment, computing the value straight into the variable
+     * @param statement Assign node
+     */
+    private void lowerAssign(Node statement){
+        String var = statement.getChildren().get(0).getName();
+        Node expr = statement.getChildren().get(1);
+        int scope = statement.getScopeSnapshot().lookupScope(var);
+
+        // variable is never read -> expressions have no side effects, so leave out the whole store
+        if(!definiteAssignment.isRead(var.charAt(0), scope)){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Removing Store to Unused Variable: " + var);
+            }
+            return;
+        }
+
+        IROperand dest = IROperand.variable(varTable.getItem(var.charAt(0), scope), var);
+        // assigning a variable to itself does nothing
+        if(expr.getName().equals(var)){
+            return;
+        }
+        lowerExprInto(expr, dest, statement);
+
+        if(verboseMode) {
+            System.out.println("CODE GENERATION: Assigning Variable " + var + " to value: " + expr.getName());
+        }
+    }
+
+    /**
+     * Lower an if statement: branch past the body when the condition is false
+     * @param statement If node
+     */
+    private void lowerIf(Node statement){
+        if(!checkChildren(statement)){
+            return;
+        }
+        Node condition = statement.getChildren().get(0);
+        Node body = statement.getChildren().get(1);
+
+        // condition is always false -> the body never runs, so leave the whole statement out
+        if(condition.getName().equals("false")){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Removing If Statement With Condition That Is Always False");
+            }
+            return;
+        }
+        // condition is always true -> the body is straight-line code
+        if(condition.getName().equals("true")){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Removing If Condition That Is Always True");
+            }
+            lowerStatement(body);
+            return;
+        }
+
+        int start = program.newLabel();
+        int end = program.newLabel();
+        lowerCondition(condition, start, end, statement);
+        program.addLabel(start);
+        lowerStatement(body);
+        program.addLabel(end);
+    }
+
+    /**
+     * Lower a while statement: test the condition at the top of the loop and go back to it after the body
+     * @param statement While node
+     */
+    private void lowerWhile(Node statement){
+        if(!checkChildren(statement)){
+            return;
+        }
+        Node condition = statement.getChildren().get(0);
+        Node body = statement.getChildren().get(1);
+
+        // condition is always false -> the body never runs, so leave the whole statement out
+        if(condition.getName().equals("false")){
+            if(verboseMode) {
+                System.out.println("CODE GENERATION: Removing While Statement With Condition That Is Always False");
+            }
+            return;
+        }
+
+        int top = program.newLabel();
+        program.addLabel(top);
+        // condition is always true -> loop forever without testing it
+        if(condition.getName().equals("true")){
+            lowerStatement(body);
+            program.addGoto(top);
+            return;
+        }
+
+        int start = program.newLabel();
+        int end = program.newLabel();
+        lowerCondition(condition, start, end, statement);
+        program.addLabel(start);
+        lowerStatement(body);
+        program.addGoto(top);
+        program.addLabel(end);
+    }
+
+    /**
+     * Make sure an if or while statement is just a condition and a body, so no statement is left out of the code
+     * @param statement If or While node
+     * @return true if the statement can be lowered
+     */
+    private boolean checkChildren(Node statement){
+        int numChildren = statement.getChildren().size();
+        if(numChildren != 2){
+            errors.add(statement.getName() + " statement at (" + statement.getLine() + ":" + statement.getPosition() +
+                    ") has " + numChildren + " children instead of a condition and a body");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lower a condition into branches that go to one label if it is true and another if it is false. A comparison
+     * of two comparisons is a branch chain: the left side is tested, and the right side is tested on both of its
+     * paths with the targets swapped on one of them, so no intermediate true/false value is ever stored. Only a
+     * single comparison on the right is tested twice this way; a deeper one is computed into a temp first so code
+     * doesn't grow exponentially.
+     * @param condition node, trueLabel to go to if true, falseLabel to go to if false, statement the condition is in
+     */
+    private void lowerCondition(Node condition, int trueLabel, int falseLabel, Node statement){
+        String name = condition.getName();
+        if(name.equals("true")){
+            program.addGoto(trueLabel);
+            return;
+        }
+        if(name.equals("false")){
+            program.addGoto(falseLabel);
+            return;
+        }
+        // boolean variable -> compare it with true
+        if(!isComparison(condition)){
+            lowerTest(lowerExpr(condition, statement), trueLabel, falseLabel);
+            return;
+        }
+
+        Node left = condition.getChildren().get(0);
+        Node right = condition.getChildren().get(1);
+        boolean isEqual = name.equals("isEqual");
+
+        // comparison of two values -> a single branch (layout drops the goto if its target is next)
+        if(!isComparison(left) && !isComparison(right)){
+            IROperand value1 = lowerExpr(left, statement);
+            IROperand value2 = lowerExpr(right, statement);
+            if(isEqual){
+                program.addBranch(IRInstruction.BRANCH_NOT_EQUAL, value1, value2, falseLabel);
+                program.addGoto(trueLabel);
+            }
+            else{
+                program.addBranch(IRInstruction.BRANCH_NOT_EQUAL, value1, value2, trueLabel);
+                program.addGoto(falseLabel);
+            }
+            return;
+        }
+
+        // keep the comparison on the left (== and != go either way around)
+        if(!isComparison(left)){
+            Node swap = left;
+            left = right;
+            right = swap;
+        }
+        IROperand rightValue = null;
+        if(isNested(right)){
+            rightValue = lowerExpr(right, statement);
+        }
+
+        // left true -> the result is the right side (its opposite for !=), left false -> the opposite
+        if(!isEqual){
+            int swap = trueLabel;
+            trueLabel = falseLabel;
+            falseLabel = swap;
+        }
+        int leftTrue = program.newLabel();
+        int leftFalse = program.newLabel();
+        lowerCondition(left, leftTrue, leftFalse, statement);
+        program.addLabel(leftTrue);
+        lowerSide(right, rightValue, trueLabel, falseLabel, statement);
+        program.addLabel(leftFalse);
+        lowerSide(right, rightValue, falseLabel, trueLabel, statement);
+    }
+
+    /**
+     * Lower a test of the right side of a comparison of comparisons
+     * @param side node, value of the side if it was already computed (null if not), trueLabel, falseLabel,
+     *             statement the side is in
+     */
+    private void lowerSide(Node side, IROperand value, int trueLabel, int falseLabel, Node statement){
+        if(value != null){
+            lowerTest(value, trueLabel, falseLabel);
+        }
+        else{
+            lowerCondition(side, trueLabel, falseLabel, statement);
+        }
+    }
+
+    /**
+     * Lower a test of a boolean value
+     * @param value true/false heap address, trueLabel to go to if true, falseLabel to go to if false
+     */
+    private void lowerTest(IROperand value, int trueLabel, int falseLabel){
+        program.addBranch(IRInstruction.BRANCH_NOT_EQUAL, value, IROperand.heapConstant(trueAddress, "true"),
+                falseLabel);
+        program.addGoto(trueLabel);
+    }
+
+    /**
+     * Check if an expression is an equality test
+     * @param expr node
+     * @return true if isEqual or isNotEqual
+     */
+    private boolean isComparison(Node expr){
+        return expr.getName().equals("isEqual") || expr.getName().equals("isNotEqual");
+    }
+
+    /**
+     * Check if an expression is an equality test with an equality test inside it
+     * @param expr node
+     * @return true if nested comparison
+     */
+    private boolean isNested(Node expr){
+        return isComparison(expr) && (isComparison(expr.getChildren().get(0)) ||
+                isComparison(expr.getChildren().get(1)));
+    }
+
+    /**
+     * Lower an expression into an operand, using a new temp for the result of an operation
+     * @param expr node, statement the expression is in
+     * @return operand holding the value
+     */
+    private IROperand lowerExpr(Node expr, Node statement){
+        String name = expr.getName();
+        if(name.equals("Addition") || name.equals("isEqual") || name.equals("isNotEqual")){
+            IROperand temp = program.newTemp();
+            lowerExprInto(expr, temp, statement);
+            return temp;
+        }
+        // integer literal (folded constants can have more than one digit)
+        if(name.matches("[0-9]+")){
+            return IROperand.constant(Integer.parseInt(name));
+        }
+        if(name.equals("true")){
+            return IROperand.heapConstant(trueAddress, "true");
+        }
+        if(name.equals("false")){
+            return IROperand.heapConstant(falseAddress, "false");
+        }
+        // string literal
+        if(name.charAt(0) == '"'){
+            return IROperand.heapConstant(storeHeap(name.substring(1, name.length() - 1)), name);
+        }
+        // variable
+        int scope = statement.getScopeSnapshot().lookupScope(name);
+        return IROperand.variable(varTable.getItem(name.charAt(0), scope), name);
+    }
+
+    /**
+     * Lower an expression and put its value in a destination
+     * @param expr node, dest operand, statement the expression is in
+     */
+    private void lowerExprInto(Node expr, IROperand dest, Node statement){
+        String name = expr.getName();
+        // nested comparison -> branch chain that stores true or false at the end
+        if(isNested(expr)){
+            int trueLabel = program.newLabel();
+            int falseLabel = program.newLabel();
+            int end = program.newLabel();
+            lowerCondition(expr, trueLabel, falseLabel, statement);
+            program.addLabel(trueLabel);
+            program.addCopy(dest, IROperand.heapConstant(trueAddress, "true"));
+            program.addGoto(end);
+            program.addLabel(falseLabel);
+            program.addCopy(dest, IROperand.heapConstant(falseAddress, "false"));
+            program.addLabel(end);
+        }
+        else if(name.equals("Addition") || name.equals("isEqual") || name.equals("isNotEqual")){
+            IROperand value1 = lowerExpr(expr.getChildren().get(0), statement);
+            IROperand value2 = lowerExpr(expr.getChildren().get(1), statement);
+            int op = IRInstruction.ADD;
+            if(name.equals("isEqual")){
+                op = IRInstruction.EQUAL;
+            }
+            else if(name.equals("isNotEqual")){
+                op = IRInstruction.NOT_EQUAL;
+            }
+            program.addBinary(op, dest, value1, value2);
+        }
+        else{
+            program.addCopy(dest, lowerExpr(expr, statement));
+        }
+    }
+
+    /**
+     * Get the type of an expression
+     * @param expr node, statement the expression is in
+     * @return int, string, or boolean
+     */
+    private String getType(Node expr, Node statement){
+        String name = expr.getName();
+        if(name.equals("Addition") || name.matches("[0-9]+")){
+            return "int";
+        }
+        if(name.charAt(0) == '"'){
+            return "string";
+        }
+        if(name.matches("[a-z]")){
+            return statement.getScopeSnapshot().lookup(name).getType();
+        }
+        return "boolean";
+    }
+
+    /**
+     * Store a string in the heap
+     * @param value to store (without quotes)
+     * @return heap address of the string
+     */
+    private int storeHeap(String value){
+        int heapStart = emitter.getHeapStart();
+        int address = emitter.storeHeap(value);
+        if(verboseMode) {
+            if(heapStart == emitter.getHeapStart()){
+                System.out.println("CODE GENERATION: Sharing value: " + value + " already in heap at location: " +
+                        address);
+            }
+            else {
+                System.out.println("CODE GENERATION: Storing value: " + value + " in heap at location: " + address);
+            }
+        }
+        return address;
+    }
+}
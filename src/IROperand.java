@@ -0,0 +1,124 @@
+/**
+ * This class stores an operand of a three-address intermediate code instruction: a constant byte, a static
+ * variable, or a temporary. Strings and booleans are constants holding their heap address.
+ *
+ * @author Emily Doran
+ *
+ */
+public class IROperand {
+
+    public static final int CONSTANT = 0;
+    public static final int VARIABLE = 1;
+    public static final int TEMP = 2;
+
+    private int kind;
+    private int value;
+    private StaticVariableTableItem variable;
+    private String text;
+
+    private IROperand(int kind, int value, StaticVariableTableItem variable, String text){
+        this.kind = kind;
+        this.value = value;
+        this.variable = variable;
+        this.text = text;
+    }
+
+    /**
+     * Create an integer constant
+     * @param value of constant
+     * @return constant operand
+     */
+    public static IROperand constant(int value){
+        return new IROperand(CONSTANT, value, null, Integer.toString(value));
+    }
+
+    /**
+     * Create a constant whose value is a heap address (a string or boolean)
+     * @param address in heap, text to print the constant as
+     * @return constant operand
+     */
+    public static IROperand heapConstant(int address, String text){
+        return new IROperand(CONSTANT, address, null, text);
+    }
+
+    /**
+     * Create a static variable operand
+     * @param variable static variable table item, name of variable
+     * @return variable operand
+     */
+    public static IROperand variable(StaticVariableTableItem variable, String name){
+        return new IROperand(VARIABLE, 0, variable, name + "@" + variable.getScope());
+    }
+
+    /**
+     * Create a temporary
+     * @param id of temporary
+     * @return temp operand
+     */
+    public static IROperand temp(int id){
+        return new IROperand(TEMP, id, null, "t" + id);
+    }
+
+    /**
+     * Get the kind of operand
+     * @return CONSTANT, VARIABLE, or TEMP
+     */
+    public int getKind(){
+        return kind;
+    }
+
+    /**
+     * Check if the operand is a constant
+     * @return true if constant
+     */
+    public boolean isConstant(){
+        return kind == CONSTANT;
+    }
+
+    /**
+     * Check if the operand is a temporary
+     * @return true if temp
+     */
+    public boolean isTemp(){
+        return kind == TEMP;
+    }
+
+    /**
+     * Get the value of a constant, or the id of a temp
+     * @return value or temp id
+     */
+    public int getValue(){
+        return value;
+    }
+
+    /**
+     * Get the static variable of a variable operand
+     * @return static variable table item (null if not a variable)
+     */
+    public StaticVariableTableItem getVariable(){
+        return variable;
+    }
+
+    /**
+     * Check if two operands name the same constant, variable, or temp
+     * @param other operand
+     * @return true if same
+     */
+    public boolean same(IROperand other){
+        if(kind != other.kind){
+            return false;
+        }
+        if(kind == VARIABLE){
+            return variable == other.variable;
+        }
+        return value == other.value;
+    }
+
+    /**
+     * Get the string representation of the operand
+     * @return constant value or text, variable name@scope, or temp name
+     */
+    public String toString(){
+        return text;
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+
+/**
+ * This class stores a program in three-address intermediate code: a linear list of instructions with explicit
+ * temporaries and labels. Code generation lowers the AST into it, and passes and instruction selection work on it
+ * instead of on machine code.
+ *
+ * @author Emily Doran
+ *
+ */
+public class IRProgram {
+
+    private ArrayList<IRInstruction> instructions = new ArrayList<IRInstruction>();
+    private int numTemps = 0;
+    private int numLabels = 0;
+    // source statement instructions are being added for
+    private Node statement;
+
+    /**
+     * Create a new temporary
+     * @return temp operand
+     */
+    public IROperand newTemp(){
+        numTemps++;
+        return IROperand.temp(numTemps - 1);
+    }
+
+    /**
+     * Create a new label
+     * @return label id
+     */
+    public int newLabel(){
+        numLabels++;
+        return numLabels - 1;
+    }
+
+    /**
+     * Add dest = source
+     * @param dest, source
+     */
+    public void addCopy(IROperand dest, IROperand source){
+        add(new IRInstruction(IRInstruction.COPY, dest, source, null, -1));
+    }
+
+    /**
+     * Add dest = source1 op source2 (ADD, EQUAL, or NOT_EQUAL)
+     * @param op, dest, source1, source2
+     */
+    public void addBinary(int op, IROperand dest, IROperand source1, IROperand source2){
+        add(new IRInstruction(op, dest, source1, source2, -1));
+    }
+
+    /**
+     * Add a print (PRINT_INT or PRINT_STRING)
+     * @param op, source to print
+     */
+    public void addPrint(int op, IROperand source){
+        add(new IRInstruction(op, null, source, null, -1));
+    }
+
+    /**
+     * Add a label definition
+     * @param label id
+     */
+    public void addLabel(int label){
+        add(new IRInstruction(IRInstruction.LABEL, null, null, null, label));
+    }
+
+    /**
+     * Add goto label
+     * @param label id
+     */
+    public void addGoto(int label){
+        add(new IRInstruction(IRInstruction.GOTO, null, null, null, label));
+    }
+
+    /**
+     * Add a conditional branch (BRANCH_NOT_EQUAL)
+     * @param op, source1, source2 operands to compare, label to jump to
+     */
+    public void addBranch(int op, IROperand source1, IROperand source2, int label){
+        add(new IRInstruction(op, null, source1, source2, label));
+    }
+
+    /**
+     * Set the source statement the instructions added next are lowered from
+     * @param statement node (null if none)
+     */
+    public void setStatement(Node statement){
+        this.statement = statement;
+    }
+
+    /**
+     * Get the source statement instructions are being added for
+     * @return statement node (null if none)
+     */
+    public Node getStatement(){
+        return statement;
+    }
+
+    /**
+     * Get the instructions
+     * @return instructions in program order
+     */
+    public ArrayList<IRInstruction> getInstructions(){
+        return instructions;
+    }
+
+    /**
+     * Replace the instructions (temps and labels created so far stay valid)
+     * @param instructions in program order
+     */
+    public void replaceInstructions(ArrayList<IRInstruction> instructions){
+        this.instructions = instructions;
+    }
+
+    /**
+     * Add an instruction for the current statement
+     * @param instruction to add
+     */
+    private void add(IRInstruction instruction){
+        instruction.setStatement(statement);
+        instructions.add(instruction);
+    }
+
+    /**
+     * Get the number of temporaries created
+     * @return number of temps
+     */
+    public int getNumTemps(){
+        return numTemps;
+    }
+
+    /**
+     * Get the number of labels created
+     * @return number of labels
+     */
+    public int getNumLabels(){
+        return numLabels;
+    }
+
+    /**
+     * Get the string representation of the program, one instruction per line
+     * @return program listing
+     */
+    public String toString(){
+        StringBuilder result = new StringBuilder();
+        for(IRInstruction instruction: instructions){
+            result.append(instruction).append('\n');
+        }
+        return result.toString();
+    }
+}
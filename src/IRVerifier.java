@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+
+/**
+ * This class checks that intermediate code is well formed before instructions are selected for it, so a broken
+ * lowering or optimization pass is caught at the pass that broke it instead of as wrong machine code:
+ * every instruction has the operands its operation needs, only variables and temps are written, constants fit in a
+ * byte, each label is defined once, every jump goes to a defined label, and every temp is written before it is read.
+ *
+ * @author Emily Doran
+ *
+ */
+public class IRVerifier {
+
+    private ArrayList<String> errors = new ArrayList<String>();
+    private int numLabels;
+
+    /**
+     * Creates a new instance of IRVerifier and checks the program
+     * @param program to check
+     */
+    public IRVerifier(IRProgram program){
+        ArrayList<IRInstruction> instructions = program.getInstructions();
+        numLabels = program.getNumLabels();
+
+        // find every label definition first, since jumps can go forward
+        boolean[] defined = new boolean[program.getNumLabels()];
+        for(IRInstruction instruction: instructions){
+            if(instruction.getOp() == IRInstruction.LABEL){
+                if(!checkLabel(instruction)){
+                    continue;
+                }
+                if(defined[instruction.getLabel()]){
+                    error(instruction, "label defined more than once");
+                }
+                defined[instruction.getLabel()] = true;
+            }
+        }
+
+        boolean[] written = new boolean[program.getNumTemps()];
+        for(IRInstruction instruction: instructions){
+            int op = instruction.getOp();
+
+            // check the operands the operation needs
+            boolean needsDest = op == IRInstruction.COPY || op == IRInstruction.ADD || op == IRInstruction.EQUAL ||
+                    op == IRInstruction.NOT_EQUAL;
+            boolean needsSource1 = op != IRInstruction.LABEL && op != IRInstruction.GOTO;
+            boolean needsSource2 = op == IRInstruction.ADD || op == IRInstruction.EQUAL ||
+                    op == IRInstruction.NOT_EQUAL || op == IRInstruction.BRANCH_NOT_EQUAL;
+            if(needsDest != (instruction.getDest() != null) || needsSource1 != (instruction.getSource1() != null) ||
+                    needsSource2 != (instruction.getSource2() != null)){
+                error(instruction, "wrong operands for operation");
+                continue;
+            }
+
+            // temps have to be written before they are read
+            checkSource(instruction, instruction.getSource1(), program, written);
+            checkSource(instruction, instruction.getSource2(), program, written);
+
+            if(needsDest){
+                IROperand dest = instruction.getDest();
+                if(dest.isConstant()){
+                    error(instruction, "constant used as destination");
+                }
+                else if(dest.isTemp() && checkTemp(instruction, dest, program)){
+                    written[dest.getValue()] = true;
+                }
+            }
+
+            if(instruction.isJump() && checkLabel(instruction) && !defined[instruction.getLabel()]){
+                error(instruction, "jump to undefined label");
+            }
+        }
+    }
+
+    /**
+     * Check if the program is well formed
+     * @return true if no errors were found
+     */
+    public boolean passed(){
+        return errors.isEmpty();
+    }
+
+    /**
+     * Get the problems found
+     * @return error messages
+     */
+    public ArrayList<String> getErrors(){
+        return errors;
+    }
+
+    /**
+     * Check a source operand
+     * @param instruction reading the operand, source operand (null if not used), program, written temps
+     */
+    private void checkSource(IRInstruction instruction, IROperand source, IRProgram program, boolean[] written){
+        if(source == null){
+            return;
+        }
+        if(source.isConstant() && (source.getValue() < 0 || source.getValue() > 0xFF)){
+            error(instruction, "constant does not fit in a byte");
+        }
+        else if(source.isTemp() && checkTemp(instruction, source, program) && !written[source.getValue()]){
+            error(instruction, "temp " + source + " read before it is written");
+        }
+    }
+
+    /**
+     * Check that a temp was created by the program
+     * @param instruction using the temp, temp operand, program
+     * @return true if valid temp
+     */
+    private boolean checkTemp(IRInstruction instruction, IROperand temp, IRProgram program){
+        if(temp.getValue() < 0 || temp.getValue() >= program.getNumTemps()){
+            error(instruction, "unknown temp " + temp);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check that the label of a label definition or jump was created by the program
+     * @param instruction defining or jumping to the label
+     * @return true if valid label
+     */
+    private boolean checkLabel(IRInstruction instruction){
+        if(instruction.getLabel() < 0 || instruction.getLabel() >= numLabels){
+            error(instruction, "unknown label");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record a problem with an instruction
+     * @param instruction, message describing problem
+     */
+    private void error(IRInstruction instruction, String message){
+        errors.add(message + ": " + instruction.toString().trim());
+    }
+}
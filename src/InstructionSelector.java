@@ -0,0 +1,562 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class selects 6502a instructions for three-address intermediate code with tree patterns. Each IR instruction
+ * becomes an expression tree (a temp that is computed once and read once right after is replaced by the tree
+ * computing it), every node is labelled bottom up with the cheapest pattern producing its value in each
+ * nonterminal (immediate, memory, A, X, or Y), and the cheapest covering of the tree is emitted top down.
+ *
+ * The patterns are the RULES table below with their cost in bytes. Additions go through the accumulator and
+ * comparisons through X (CPX is the only instruction that sets the Z flag). A comparison is only turned into a heap
+ * pointer to "true" or "false" where its value is needed, in A to store it or in Y to print it. ADC and CPX only take
+ * a memory operand, so operand combinations like a constant on both sides come from chain rules storing a value to a
+ * scratch temp instead of from their own cases. A statement adding a constant to the variable it stores to can also
+ * be covered by incrementing the variable in place (INC), once per unit of the constant, which is cheaper than going
+ * through the accumulator when the constant is 1 or 2.
+ *
+ * Each temp gets a static temp slot from its definition to its last use, so temps that are not live at the same time
+ * share a slot. Every goto and branch gets a jump table item, and its distance is filled in once the offset of each
+ * label is known.
+ *
+ * @author Emily Doran
+ *
+ */
+public class InstructionSelector {
+
+    // pattern actions
+    private static final int NONE = 0;
+    private static final int LOAD_A = 1;
+    private static final int LOAD_X = 2;
+    private static final int LOAD_Y = 3;
+    private static final int STORE_SCRATCH = 4;
+    private static final int ADD = 5;
+    private static final int EQUAL = 6;
+    private static final int NOT_EQUAL = 7;
+    private static final int STORE = 8;
+    private static final int PRINT_INT = 9;
+    private static final int PRINT_STRING = 10;
+    private static final int BRANCH_NOT_EQUAL = 11;
+    private static final int INCREMENT = 12;
+
+    private static final int STATEMENT = SelectionRule.STATEMENT;
+    private static final int IMMEDIATE = SelectionRule.IMMEDIATE;
+    private static final int MEMORY = SelectionRule.MEMORY;
+    private static final int A = SelectionRule.A;
+    private static final int X = SelectionRule.X;
+    private static final int Y = SelectionRule.Y;
+
+    // name, result, tree op, left child, right child, cost in bytes, action
+    public static final SelectionRule[] RULES = {
+            new SelectionRule("constant", IMMEDIATE, SelectionRule.CONSTANT_LEAF, -1, -1, 0, NONE),
+            new SelectionRule("variable", MEMORY, SelectionRule.MEMORY_LEAF, -1, -1, 0, NONE),
+            new SelectionRule("LDA #", A, SelectionRule.CHAIN, IMMEDIATE, -1, 2, LOAD_A),
+            new SelectionRule("LDA mem", A, SelectionRule.CHAIN, MEMORY, -1, 3, LOAD_A),
+            new SelectionRule("LDX #", X, SelectionRule.CHAIN, IMMEDIATE, -1, 2, LOAD_X),
+            new SelectionRule("LDX mem", X, SelectionRule.CHAIN, MEMORY, -1, 3, LOAD_X),
+            new SelectionRule("LDY #", Y, SelectionRule.CHAIN, IMMEDIATE, -1, 2, LOAD_Y),
+            new SelectionRule("LDY mem", Y, SelectionRule.CHAIN, MEMORY, -1, 3, LOAD_Y),
+            // the scratch temp also takes a byte of static memory
+            new SelectionRule("STA scratch", MEMORY, SelectionRule.CHAIN, A, -1, 4, STORE_SCRATCH),
+            new SelectionRule("ADC", A, IRInstruction.ADD, A, MEMORY, 3, ADD),
+            new SelectionRule("ADC swapped", A, IRInstruction.ADD, MEMORY, A, 3, ADD),
+            new SelectionRule("CPX ==", A, IRInstruction.EQUAL, X, MEMORY, 9, EQUAL),
+            new SelectionRule("CPX == swapped", A, IRInstruction.EQUAL, MEMORY, X, 9, EQUAL),
+            new SelectionRule("CPX !=", A, IRInstruction.NOT_EQUAL, X, MEMORY, 9, NOT_EQUAL),
+            new SelectionRule("CPX != swapped", A, IRInstruction.NOT_EQUAL, MEMORY, X, 9, NOT_EQUAL),
+            // a comparison that is printed right away loads its heap pointer straight into Y
+            new SelectionRule("CPX == into Y", Y, IRInstruction.EQUAL, X, MEMORY, 9, EQUAL),
+            new SelectionRule("CPX == into Y swapped", Y, IRInstruction.EQUAL, MEMORY, X, 9, EQUAL),
+            new SelectionRule("CPX != into Y", Y, IRInstruction.NOT_EQUAL, X, MEMORY, 9, NOT_EQUAL),
+            new SelectionRule("CPX != into Y swapped", Y, IRInstruction.NOT_EQUAL, MEMORY, X, 9, NOT_EQUAL),
+            new SelectionRule("STA", STATEMENT, IRInstruction.COPY, A, -1, 3, STORE),
+            // x = k + x: cost is per increment and the pattern is matched by labelIncrement, not by the children
+            new SelectionRule("INC", STATEMENT, IRInstruction.COPY, -1, -1, 3, INCREMENT),
+            new SelectionRule("print int", STATEMENT, IRInstruction.PRINT_INT, Y, -1, 3, PRINT_INT),
+            new SelectionRule("print string", STATEMENT, IRInstruction.PRINT_STRING, Y, -1, 3, PRINT_STRING),
+            new SelectionRule("CPX BNE", STATEMENT, IRInstruction.BRANCH_NOT_EQUAL, X, MEMORY, 5, BRANCH_NOT_EQUAL),
+            new SelectionRule("CPX BNE swapped", STATEMENT, IRInstruction.BRANCH_NOT_EQUAL, MEMORY, X, 5,
+                    BRANCH_NOT_EQUAL)
+    };
+
+    private StaticVariableTable varTable;
+    private JumpTable jumpTable;
+    private Emitter emitter;
+
+    // expression tree of each instruction (null if it has none or was folded into a later tree)
+    private SelectionTree[] trees;
+    // static temp slot of each temp (null if not live)
+    private StaticVariableTableItem[] tempSlots;
+    // index of the last instruction reading each temp
+    private int[] lastUse;
+    // scratch temps of the statement being emitted
+    private ArrayList<StaticVariableTableItem> scratch = new ArrayList<StaticVariableTableItem>();
+    private int currentIndex;
+    private int estimatedCost = 0;
+
+    // code offset of each label
+    private int[] labelOffsets;
+    // jumps waiting for their label, and the code offset right after each one
+    private ArrayList<JumpTableItem> jumps = new ArrayList<JumpTableItem>();
+    private ArrayList<Integer> jumpEnds = new ArrayList<Integer>();
+    private ArrayList<Integer> jumpLabels = new ArrayList<Integer>();
+
+    /**
+     * Creates a new instance of InstructionSelector and emits the program
+     * @param program to select instructions for, varTable to add temp slots to, jumpTable to add jumps to,
+     *                emitter to emit instructions with
+     */
+    public InstructionSelector(IRProgram program, StaticVariableTable varTable, JumpTable jumpTable, Emitter emitter){
+        this.varTable = varTable;
+        this.jumpTable = jumpTable;
+        this.emitter = emitter;
+
+        ArrayList<IRInstruction> instructions = program.getInstructions();
+        tempSlots = new StaticVariableTableItem[program.getNumTemps()];
+        labelOffsets = new int[program.getNumLabels()];
+
+        buildTrees(instructions, program.getNumTemps());
+
+        // find the last read of each temp, so its slot can be reused after it
+        lastUse = new int[program.getNumTemps()];
+        for(int i = 0; i < instructions.size(); i++){
+            if(trees[i] != null){
+                markUses(trees[i], i);
+            }
+        }
+
+        for(int i = 0; i < instructions.size(); i++){
+            IRInstruction instruction = instructions.get(i);
+            currentIndex = i;
+            emitter.setSource(instruction.getStatement());
+            if(instruction.getOp() == IRInstruction.LABEL){
+                labelOffsets[instruction.getLabel()] = emitter.getCodeSize();
+                emitter.markBranchTarget();
+            }
+            else if(instruction.getOp() == IRInstruction.GOTO){
+                emitGoto(instruction.getLabel());
+            }
+            else if(trees[i] != null){
+                label(trees[i]);
+                estimatedCost += trees[i].getCost(STATEMENT);
+                reduce(trees[i], STATEMENT, instruction);
+                releaseReads(trees[i]);
+            }
+        }
+
+        emitter.setSource(null);
+
+        // every label offset is known now -> fill in the jump distances (backward jumps wrap around)
+        for(int i = 0; i < jumps.size(); i++){
+            int distance = labelOffsets[jumpLabels.get(i)] - jumpEnds.get(i);
+            jumps.get(i).setDistance(distance & 0xFF);
+        }
+    }
+
+    /**
+     * Get the bytes the chosen patterns were estimated to take (gotos and loads left out by the emitter aren't
+     * counted)
+     * @return estimated cost
+     */
+    public int getEstimatedCost(){
+        return estimatedCost;
+    }
+
+    /**
+     * Build the expression tree of each instruction. A temp written once and read once is replaced by the tree
+     * computing it, as long as nothing the tree reads is written and no label or jump comes in between.
+     * @param instructions, numTemps number of temps in program
+     */
+    private void buildTrees(ArrayList<IRInstruction> instructions, int numTemps){
+        int[] defs = new int[numTemps];
+        int[] uses = new int[numTemps];
+        for(IRInstruction instruction: instructions){
+            if(instruction.getDest() != null && instruction.getDest().isTemp()){
+                defs[instruction.getDest().getValue()]++;
+            }
+            countUse(instruction.getSource1(), uses);
+            countUse(instruction.getSource2(), uses);
+        }
+
+        trees = new SelectionTree[instructions.size()];
+        // trees of temps that can still be folded into the instruction reading them, by temp id
+        HashMap<Integer, Integer> pending = new HashMap<Integer, Integer>();
+        for(int i = 0; i < instructions.size(); i++){
+            IRInstruction instruction = instructions.get(i);
+            int op = instruction.getOp();
+            if(op == IRInstruction.LABEL || op == IRInstruction.GOTO){
+                pending.clear();
+                continue;
+            }
+
+            SelectionTree left = operandTree(instruction.getSource1(), pending);
+            SelectionTree right = null;
+            if(instruction.getSource2() != null){
+                right = operandTree(instruction.getSource2(), pending);
+            }
+
+            IROperand dest = instruction.getDest();
+            if(dest == null){
+                trees[i] = new SelectionTree(op, left, right, null);
+                if(instruction.isJump()){
+                    pending.clear();
+                }
+                continue;
+            }
+
+            SelectionTree value = left;
+            if(op != IRInstruction.COPY){
+                value = new SelectionTree(op, left, right, null);
+            }
+            trees[i] = new SelectionTree(IRInstruction.COPY, value, null, dest);
+
+            // a waiting tree that reads the destination would see the new value if it was moved after this
+            ArrayList<Integer> stale = new ArrayList<Integer>();
+            for(Integer temp: pending.keySet()){
+                if(trees[pending.get(temp)].getLeft().reads(dest)){
+                    stale.add(temp);
+                }
+            }
+            for(Integer temp: stale){
+                pending.remove(temp);
+            }
+
+            if(dest.isTemp() && defs[dest.getValue()] == 1 && uses[dest.getValue()] == 1){
+                pending.put(dest.getValue(), i);
+            }
+        }
+    }
+
+    /**
+     * Get the tree of a source operand, taking the tree of a waiting temp
+     * @param operand, pending trees by temp id
+     * @return tree
+     */
+    private SelectionTree operandTree(IROperand operand, HashMap<Integer, Integer> pending){
+        if(operand.isTemp() && pending.containsKey(operand.getValue())){
+            int def = pending.remove(operand.getValue());
+            SelectionTree value = trees[def].getLeft();
+            trees[def] = null;
+            return value;
+        }
+        return SelectionTree.leaf(operand);
+    }
+
+    /**
+     * Find the cheapest rule producing each node of a tree in each nonterminal
+     * @param node to label
+     */
+    private void label(SelectionTree node){
+        if(node.getLeft() != null){
+            label(node.getLeft());
+        }
+        if(node.getRight() != null){
+            label(node.getRight());
+        }
+
+        for(SelectionRule rule: RULES){
+            if(rule.getOp() != node.getOp() || rule.getAction() == INCREMENT){
+                continue;
+            }
+            int cost = rule.getCost();
+            if(rule.getLeft() != -1){
+                if(node.getLeft().getCost(rule.getLeft()) == -1){
+                    continue;
+                }
+                cost += node.getLeft().getCost(rule.getLeft());
+            }
+            if(rule.getRight() != -1){
+                if(node.getRight().getCost(rule.getRight()) == -1){
+                    continue;
+                }
+                cost += node.getRight().getCost(rule.getRight());
+            }
+            node.offer(rule.getResult(), rule, cost);
+        }
+        labelIncrement(node);
+
+        // apply chain rules until nothing gets cheaper
+        boolean changed = true;
+        while(changed){
+            changed = false;
+            for(SelectionRule rule: RULES){
+                if(rule.getOp() == SelectionRule.CHAIN && node.getCost(rule.getLeft()) != -1 &&
+                        node.offer(rule.getResult(), rule, node.getCost(rule.getLeft()) + rule.getCost())){
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Offer the increment pattern for a statement adding a constant to the variable it stores to. The increment is
+     * repeated once per unit of the constant, so it only wins over adding through A for small constants.
+     * @param node to label
+     */
+    private void labelIncrement(SelectionTree node){
+        int amount = incrementAmount(node);
+        if(amount == -1){
+            return;
+        }
+        for(SelectionRule rule: RULES){
+            if(rule.getAction() == INCREMENT){
+                node.offer(rule.getResult(), rule, rule.getCost() * amount);
+            }
+        }
+    }
+
+    /**
+     * Get the constant a statement of the form x = k + x or x = x + k adds to variable x
+     * @param node statement tree
+     * @return k (-1 if the statement isn't an increment of a variable)
+     */
+    private int incrementAmount(SelectionTree node){
+        if(node.getOp() != IRInstruction.COPY || node.getOperand() == null || node.getOperand().isTemp()){
+            return -1;
+        }
+        SelectionTree value = node.getLeft();
+        if(value.getOp() != IRInstruction.ADD){
+            return -1;
+        }
+        SelectionTree constant = value.getLeft();
+        SelectionTree variable = value.getRight();
+        if(constant.getOp() != SelectionRule.CONSTANT_LEAF){
+            constant = value.getRight();
+            variable = value.getLeft();
+        }
+        if(constant.getOp() != SelectionRule.CONSTANT_LEAF || variable.getOp() != SelectionRule.MEMORY_LEAF ||
+                !variable.getOperand().same(node.getOperand())){
+            return -1;
+        }
+        return constant.getOperand().getValue();
+    }
+
+    /**
+     * Emit the cheapest covering of a node in a nonterminal. The memory operand of a pattern is produced before its
+     * register operand, so computing it can't clobber the register.
+     * @param node to emit, nonterminal to produce it in, instruction the tree belongs to
+     * @return static variable table item holding the value if produced in memory (null otherwise)
+     */
+    private StaticVariableTableItem reduce(SelectionTree node, int nonterminal, IRInstruction instruction){
+        SelectionRule rule = node.getRule(nonterminal);
+        StaticVariableTableItem memory = null;
+
+        if(rule.getOp() == SelectionRule.CHAIN){
+            memory = reduce(node, rule.getLeft(), instruction);
+        }
+        else if(rule.getOp() == SelectionRule.MEMORY_LEAF){
+            memory = slot(node.getOperand());
+        }
+        else if(rule.getOp() != SelectionRule.CONSTANT_LEAF){
+            if(rule.getRight() == MEMORY){
+                memory = reduce(node.getRight(), MEMORY, instruction);
+                reduce(node.getLeft(), rule.getLeft(), instruction);
+            }
+            else if(rule.getLeft() == MEMORY){
+                memory = reduce(node.getLeft(), MEMORY, instruction);
+                reduce(node.getRight(), rule.getRight(), instruction);
+            }
+            else if(rule.getLeft() != -1){
+                reduce(node.getLeft(), rule.getLeft(), instruction);
+            }
+        }
+
+        return emitAction(rule, node, memory, instruction);
+    }
+
+    /**
+     * Emit the instructions of a pattern once its operands are in place
+     * @param rule matched, node it matched, memory operand (null if none), instruction the tree belongs to
+     * @return static variable table item holding the result if it is in memory (null otherwise)
+     */
+    private StaticVariableTableItem emitAction(SelectionRule rule, SelectionTree node, StaticVariableTableItem memory,
+                                              IRInstruction instruction){
+        switch(rule.getAction()){
+            case LOAD_A:
+                load(Emitter.LDA_CONST, Emitter.LDA_MEM, rule, node, memory);
+                return null;
+            case LOAD_X:
+                load(Emitter.LDX_CONST, Emitter.LDX_MEM, rule, node, memory);
+                return null;
+            case LOAD_Y:
+                load(Emitter.LDY_CONST, Emitter.LDY_MEM, rule, node, memory);
+                return null;
+            case STORE_SCRATCH:
+                StaticVariableTableItem item = varTable.addTemp();
+                scratch.add(item);
+                emitter.emit(Emitter.STA, item);
+                return item;
+            case ADD:
+                emitter.emit(Emitter.ADC, memory);
+                return null;
+            case EQUAL:
+            case NOT_EQUAL:
+                emitter.emit(Emitter.CPX, memory);
+                // the load doesn't change the Z flag, so load the not equal value and skip the other load if not equal
+                // (true and false are the first strings stored in the heap, at F5 and FA)
+                int loadOpCode = Emitter.LDA_CONST;
+                if(rule.getResult() == Y){
+                    loadOpCode = Emitter.LDY_CONST;
+                }
+                if(rule.getAction() == EQUAL){
+                    emitter.emit(loadOpCode, 0xFA);
+                    emitter.emit(Emitter.BNE, 0x02);
+                    emitter.emit(loadOpCode, 0xF5);
+                }
+                else{
+                    emitter.emit(loadOpCode, 0xF5);
+                    emitter.emit(Emitter.BNE, 0x02);
+                    emitter.emit(loadOpCode, 0xFA);
+                }
+                return null;
+            case STORE:
+                // the value is computed, so the temps it read can give their slot to the destination
+                releaseReads(node);
+                emitter.emit(Emitter.STA, define(node.getOperand()));
+                return null;
+            case INCREMENT:
+                for(int i = 0; i < incrementAmount(node); i++){
+                    emitter.emit(Emitter.INC, slot(node.getOperand()));
+                }
+                return null;
+            case PRINT_INT:
+                emitter.emit(Emitter.LDX_CONST, 0x01);
+                emitter.emit(Emitter.SYS);
+                return null;
+            case PRINT_STRING:
+                emitter.emit(Emitter.LDX_CONST, 0x02);
+                emitter.emit(Emitter.SYS);
+                return null;
+            case BRANCH_NOT_EQUAL:
+                emitter.emit(Emitter.CPX, memory);
+                emitBranch(instruction.getLabel());
+                return null;
+            default:
+                return memory;
+        }
+    }
+
+    /**
+     * Emit the load of a chain rule into a register
+     * @param constOpCode to load a constant with, memOpCode to load from memory with, rule, node, memory operand
+     */
+    private void load(int constOpCode, int memOpCode, SelectionRule rule, SelectionTree node,
+                      StaticVariableTableItem memory){
+        if(rule.getLeft() == IMMEDIATE){
+            emitter.emit(constOpCode, node.getOperand().getValue());
+        }
+        else{
+            emitter.emit(memOpCode, memory);
+        }
+    }
+
+    /**
+     * Emit an unconditional jump: the top of the heap is always 00 (the end of "false"), so comparing X = 01 with it
+     * is never equal
+     * @param label to jump to
+     */
+    private void emitGoto(int label){
+        emitter.emit(Emitter.LDX_CONST, 0x01);
+        emitter.emitAbsolute(Emitter.CPX, Emitter.MEMORY_SIZE - 1);
+        emitBranch(label);
+    }
+
+    /**
+     * Emit a BNE to a label whose offset may not be known yet
+     * @param label to branch to
+     */
+    private void emitBranch(int label){
+        JumpTableItem jump = jumpTable.addJump();
+        emitter.emitJump(Emitter.BNE, jump);
+        jumps.add(jump);
+        jumpEnds.add(emitter.getCodeSize());
+        jumpLabels.add(label);
+    }
+
+    /**
+     * Get the static variable table item of a variable or live temp
+     * @param operand variable or temp
+     * @return static variable table item
+     */
+    private StaticVariableTableItem slot(IROperand operand){
+        if(operand.isTemp()){
+            return tempSlots[operand.getValue()];
+        }
+        return operand.getVariable();
+    }
+
+    /**
+     * Get the static variable table item to store a destination to, giving a temp a slot
+     * @param dest variable or temp
+     * @return static variable table item
+     */
+    private StaticVariableTableItem define(IROperand dest){
+        if(dest.isTemp() && tempSlots[dest.getValue()] == null){
+            tempSlots[dest.getValue()] = varTable.addTemp();
+        }
+        return slot(dest);
+    }
+
+    /**
+     * Free the scratch temps of the statement and the slot of each temp the tree reads for the last time
+     * @param node tree of the statement being emitted
+     */
+    private void releaseReads(SelectionTree node){
+        for(StaticVariableTableItem item: scratch){
+            varTable.releaseTemp(item);
+        }
+        scratch.clear();
+        releaseLeaves(node);
+    }
+
+    /**
+     * Free the slot of each temp leaf read for the last time by the current instruction
+     * @param node tree
+     */
+    private void releaseLeaves(SelectionTree node){
+        if(node.getOp() == SelectionRule.MEMORY_LEAF){
+            IROperand operand = node.getOperand();
+            if(operand.isTemp() && lastUse[operand.getValue()] == currentIndex &&
+                    tempSlots[operand.getValue()] != null){
+                varTable.releaseTemp(tempSlots[operand.getValue()]);
+                tempSlots[operand.getValue()] = null;
+            }
+            return;
+        }
+        if(node.getLeft() != null){
+            releaseLeaves(node.getLeft());
+        }
+        if(node.getRight() != null){
+            releaseLeaves(node.getRight());
+        }
+    }
+
+    /**
+     * Record the reads of temps in a tree
+     * @param node tree, index of instruction the tree is emitted at
+     */
+    private void markUses(SelectionTree node, int index){
+        if(node.getOp() == SelectionRule.MEMORY_LEAF){
+            if(node.getOperand().isTemp()){
+                lastUse[node.getOperand().getValue()] = index;
+            }
+            return;
+        }
+        if(node.getLeft() != null){
+            markUses(node.getLeft(), index);
+        }
+        if(node.getRight() != null){
+            markUses(node.getRight(), index);
+        }
+    }
+
+    /**
+     * Count a read of a temp
+     * @param operand read (null if not used), uses count of each temp
+     */
+    private void countUse(IROperand operand, int[] uses){
+        if(operand != null && operand.isTemp()){
+            uses[operand.getValue()]++;
+        }
+    }
+}
@@ -26,11 +26,13 @@ public class JumpTable {
     }
 
     /**
-     * Add a variable to jump table
-     * @param item to add
+     * Add a new jump to the jump table
+     * @return new JumpTableItem (temp J0, J1, ...)
      */
-    public void addItem(JumpTableItem item){
+    public JumpTableItem addJump(){
+        JumpTableItem item = new JumpTableItem(jumpTable.size(), "J" + jumpTable.size());
         jumpTable.add(item);
+        return item;
     }
 
     /**
@@ -43,16 +45,14 @@ public class JumpTable {
 
     /**
      * Get a specific table item
-     * @return JumpTableItem with temp
+     * @param id of jump
+     * @return JumpTableItem with id
      */
-    public JumpTableItem getItem(String temp){
-        JumpTableItem item = jumpTable.get(0);
-        for(int i = 0; i < jumpTable.size(); i++){
-            if(jumpTable.get(i).getTemp().equals(temp)){
-                item = jumpTable.get(i);
-            }
+    public JumpTableItem getItem(int id){
+        if(id < 0 || id >= jumpTable.size()){
+            throw new IllegalStateException("No jump J" + id + " in jump table");
         }
-        return item;
+        return jumpTable.get(id);
     }
 
     /**
@@ -6,13 +6,23 @@
  */
 public class JumpTableItem {
 
+    private int id;
     private String temp;
     private int distance;
 
-    public JumpTableItem(String temp){
+    public JumpTableItem(int id, String temp){
+        this.id = id;
         this.temp = temp;
     }
 
+    /**
+     * Gets the id (position in the jump table) of jump table item
+     * @return id of jump
+     */
+    public int getId(){
+        return id;
+    }
+
     /**
      * Sets the distance
      * @param distance of jump
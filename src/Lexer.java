@@ -31,11 +31,14 @@ public class Lexer {
 
     // store if we are in verbose test mode or not
     boolean verboseTestMode;
+    // command line options passed along to each phase
+    private CompilerOptions options;
 
     boolean twoLineString = false;
 
-    public Lexer(String passedFile, boolean verboseMode) {
+    public Lexer(String passedFile, boolean verboseMode, CompilerOptions options) {
         verboseTestMode = verboseMode;
+        this.options = options;
 
         try {
             File file = new File(passedFile);
@@ -71,7 +74,7 @@ public class Lexer {
                         passedLex = true;
 
                     // call parser
-                    Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum);
+                    Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum, options);
                     programTokens.clear();
 
                 }
@@ -87,7 +90,7 @@ public class Lexer {
                     passedLex = true;
 
                 // call parser
-                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum);
+                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum, options);
                 programTokens.clear();
             }
             // check if quote is left open at end of program
@@ -100,7 +103,7 @@ public class Lexer {
                     passedLex = true;
 
                 // call parser
-                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum);
+                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum, options);
                 programTokens.clear();
             }
             scanner.close();
@@ -220,7 +223,7 @@ public class Lexer {
                                 if(numErrors == 0)
                                     passedLex = true;
 
-                                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum);
+                                Parser parseTokens = new Parser(programTokens, verboseTestMode, passedLex, programNum, options);
                                 programTokens.clear();
 
                                 programNum++;
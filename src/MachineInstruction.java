@@ -0,0 +1,154 @@
+/**
+ * This class stores one decoded 6502a instruction of the code image, so passes over the generated code can work on
+ * whole instructions and branch targets instead of raw bytes
+ *
+ * @author Emily Doran
+ *
+ */
+public class MachineInstruction {
+
+    private int opCode;
+    private int operand;
+    private int offset;
+    private Relocation relocation;
+    // source statement the instruction was generated for (null if none)
+    private Node source;
+
+    // instruction a branch jumps to
+    private MachineInstruction target;
+    // true if some branch jumps to this instruction
+    private boolean branchTarget = false;
+
+    public MachineInstruction(int opCode, int operand, int offset, Relocation relocation){
+        this.opCode = opCode;
+        this.operand = operand;
+        this.offset = offset;
+        this.relocation = relocation;
+    }
+
+    /**
+     * Get the op code
+     * @return op code
+     */
+    public int getOpCode(){
+        return opCode;
+    }
+
+    /**
+     * Change the instruction into another one with the same operand
+     * @param opCode new op code (must take the same kind of operand)
+     */
+    public void setOpCode(int opCode){
+        this.opCode = opCode;
+    }
+
+    /**
+     * Get the one byte operand (constant, branch distance, or low byte of a known address)
+     * @return operand
+     */
+    public int getOperand(){
+        return operand;
+    }
+
+    /**
+     * Set the one byte operand
+     * @param operand new operand
+     */
+    public void setOperand(int operand){
+        this.operand = operand;
+    }
+
+    /**
+     * Get the position of the instruction in the code image
+     * @return offset
+     */
+    public int getOffset(){
+        return offset;
+    }
+
+    /**
+     * Set the position of the instruction in the code image
+     * @param offset new offset
+     */
+    public void setOffset(int offset){
+        this.offset = offset;
+    }
+
+    /**
+     * Get the placeholder operand of the instruction
+     * @return relocation (null if the operand is already known)
+     */
+    public Relocation getRelocation(){
+        return relocation;
+    }
+
+    /**
+     * Set the placeholder operand of the instruction
+     * @param relocation new relocation (null if the operand is already known)
+     */
+    public void setRelocation(Relocation relocation){
+        this.relocation = relocation;
+    }
+
+    /**
+     * Get the number of bytes the instruction takes
+     * @return length in bytes
+     */
+    public int getLength(){
+        return Emitter.instructionLength(opCode);
+    }
+
+    /**
+     * Get the instruction this branch jumps to
+     * @return target (null if not a branch or not known)
+     */
+    public MachineInstruction getTarget(){
+        return target;
+    }
+
+    /**
+     * Set the instruction this branch jumps to
+     * @param target instruction
+     */
+    public void setTarget(MachineInstruction target){
+        this.target = target;
+        target.branchTarget = true;
+    }
+
+    /**
+     * Get the source statement the instruction was generated for
+     * @return statement node (null if none)
+     */
+    public Node getSource(){
+        return source;
+    }
+
+    /**
+     * Set the source statement the instruction was generated for
+     * @param source statement node
+     */
+    public void setSource(Node source){
+        this.source = source;
+    }
+
+    /**
+     * Check if some branch jumps to this instruction
+     * @return true if branch target
+     */
+    public boolean isBranchTarget(){
+        return branchTarget;
+    }
+
+    /**
+     * Check if both instructions use the same memory address (the same static variable or the same known address)
+     * @param other instruction with a two byte address operand
+     * @return true if same address
+     */
+    public boolean sameAddress(MachineInstruction other){
+        if(relocation != null || other.relocation != null){
+            return relocation != null && other.relocation != null && relocation.getKind() == other.relocation.getKind()
+                    && relocation.getIndex() == other.relocation.getIndex();
+        }
+        return operand == other.operand;
+    }
+}
@@ -11,6 +11,10 @@ public class Node {
     private String name;
     private ArrayList<Node> children = new ArrayList<Node>();
     private Node parent;
+    private ScopeSnapshot scopeSnapshot;
+    // source position of the token a statement starts at (0 if not set)
+    private int line = 0;
+    private int position = 0;
 
     /**
      * Creates a new Node with all 3 parameters passed in
@@ -40,6 +44,14 @@ public class Node {
         return name;
     }
 
+    /**
+     * Renames the Node (used when an expression is replaced by its value)
+     * @param name new name of Node
+     */
+    public void setName(String name){
+        this.name = name;
+    }
+
     /**
      * Returns list of the Node's children
      * @return ArrayList<Node> of Node's children
@@ -71,4 +83,45 @@ public class Node {
     public void addChild(Node child){
         children.add(child);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the scope snapshot of the variables visible at this node (set for blocks and statements)
+     * @return ScopeSnapshot of Node (null if not set)
+     */
+    public ScopeSnapshot getScopeSnapshot(){
+        return scopeSnapshot;
+    }
+
+    /**
+     * Sets the scope snapshot of the variables visible at this node
+     * @param scopeSnapshot of Node
+     */
+    public void setScopeSnapshot(ScopeSnapshot scopeSnapshot){
+        this.scopeSnapshot = scopeSnapshot;
+    }
+
+    /**
+     * Returns the line of the source the Node starts at (set for statements)
+     * @return line number (0 if not set)
+     */
+    public int getLine(){
+        return line;
+    }
+
+    /**
+     * Returns the position in its line the Node starts at (set for statements)
+     * @return position (0 if not set)
+     */
+    public int getPosition(){
+        return position;
+    }
+
+    /**
+     * Sets the source position the Node starts at
+     * @param line number, position in line
+     */
+    public void setSourcePosition(int line, int position){
+        this.line = line;
+        this.position = position;
+    }
+}
@@ -14,15 +14,17 @@ public class Parser {
     private boolean verboseMode;
     private int tokIndex = 0;
     private boolean passLex;
+    private CompilerOptions options;
 
     private SyntaxTree cst = new SyntaxTree();
 
     int errorCount = 0;
 
-    public Parser(ArrayList<Token> tokens, boolean verboseMode, boolean passLex, int programNum) {
+    public Parser(ArrayList<Token> tokens, boolean verboseMode, boolean passLex, int programNum, CompilerOptions options) {
         this.tokens = tokens;
         this.verboseMode = verboseMode;
         this.passLex = passLex;
+        this.options = options;
 
         if(passLex){
             System.out.println("\nPARSER: Parsing program " + programNum + " ...");
@@ -33,13 +35,13 @@ public class Parser {
                 System.out.println("\nCST for program " + programNum + " ...");
                 System.out.println(cst.toString());
 
-                SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, true, programNum);
+                SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, true, programNum, options);
             }
             else{
                 System.out.println("PARSER: Parse failed with " +  errorCount + " error(s)");
                 System.out.println("\nCST for program " + programNum + ": Skipped due to PARSER error(s)");
 
-                SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, false, programNum);
+                SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, false, programNum, options);
             }
         }
         else{
@@ -47,7 +49,7 @@ public class Parser {
 
             System.out.println("\nCST for program " + programNum + ": Skipped due to LEXER error(s)");
 
-            SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, false, programNum);
+            SemanticAnalyzer semanticAnalysis = new SemanticAnalyzer(tokens, verboseMode, passLex, false, programNum, options);
         }
 
     }
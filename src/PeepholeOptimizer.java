@@ -0,0 +1,303 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class runs a peephole pass over the generated code before static variable addresses are assigned. The code is
+ * decoded into instructions, every branch is tied to the instruction it jumps to, and a set of size reducing rewrite
+ * rules is applied. A rule never removes or looks past an instruction that a branch jumps to, and every branch
+ * distance (jump table entries and the short skips inside comparisons) is recomputed from its target after the code
+ * shrinks.
+ *
+ * Each rule can be turned on or off and the bytes it saved are kept per rule.
+ *
+ * @author Emily Doran
+ *
+ */
+public class PeepholeOptimizer {
+
+    // 8D M AD M -> 8D M (A still holds M)
+    public static final int STORE_RELOAD = 0;
+    // AD M 8D M -> AD M (M already holds A)
+    public static final int LOAD_STORE_SAME = 1;
+    // A9 00 6D M -> AD M (adding to zero is a load)
+    public static final int CLEAR_ADD = 2;
+    // A9/A2/A0 K when the register already holds K -> removed
+    public static final int REDUNDANT_LOAD = 3;
+    // D0 00 -> removed (branch to the next instruction)
+    public static final int BRANCH_TO_NEXT = 4;
+    // 8D T to a temporary variable that is never read -> removed
+    public static final int UNREAD_TEMP_STORE = 5;
+
+    public static final String[] RULE_NAMES = {"store/reload", "load/store same address", "clear and add",
+            "redundant constant load", "branch to next instruction", "store to unread temp"};
+
+    private boolean[] enabled = new boolean[RULE_NAMES.length];
+    private int[] bytesSaved = new int[RULE_NAMES.length];
+
+    private ArrayList<MachineInstruction> instructions;
+
+    // true for each static variable table index that is a temporary variable
+    private boolean[] temps;
+
+    /**
+     * Initialize the optimizer with every rule turned on
+     */
+    public PeepholeOptimizer(){
+        for(int i = 0; i < enabled.length; i++){
+            enabled[i] = true;
+        }
+    }
+
+    /**
+     * Turn a rule on or off
+     * @param rule number of rule, on true to turn the rule on
+     */
+    public void setRuleEnabled(int rule, boolean on){
+        enabled[rule] = on;
+    }
+
+    /**
+     * Check if a rule is turned on
+     * @param rule number of rule
+     * @return true if rule is on
+     */
+    public boolean isRuleEnabled(int rule){
+        return enabled[rule];
+    }
+
+    /**
+     * Get the bytes a rule saved in the last call to optimize
+     * @param rule number of rule
+     * @return bytes saved
+     */
+    public int getBytesSaved(int rule){
+        return bytesSaved[rule];
+    }
+
+    /**
+     * Get the bytes every rule saved in the last call to optimize
+     * @return bytes saved
+     */
+    public int getTotalBytesSaved(){
+        int total = 0;
+        for(int saved: bytesSaved){
+            total += saved;
+        }
+        return total;
+    }
+
+    /**
+     * Optimize the code of an emitter and update the jump distances to match. Nothing is changed if the code can't
+     * be decoded or some branch doesn't land on an instruction.
+     * @param emitter with the code (static variable placeholders not yet filled in), varTable to tell temporary
+     *                variables apart, jumpTable with every jump distance already set
+     * @return bytes saved
+     */
+    public int optimize(Emitter emitter, StaticVariableTable varTable, JumpTable jumpTable){
+        bytesSaved = new int[RULE_NAMES.length];
+
+        // only stores to temporary variables can be removed when nothing reads them
+        temps = new boolean[varTable.getNumVariables()];
+        for(StaticVariableTableItem item: varTable.getVariableTable()){
+            temps[item.getIndex()] = item.getScope() < 0;
+        }
+
+        instructions = emitter.decode();
+        if(instructions == null || !findBranchTargets(jumpTable)){
+            return 0;
+        }
+
+        // apply rules until none of them match anymore
+        boolean changed = true;
+        while(changed){
+            changed = false;
+            for(int i = 0; i < instructions.size(); i++){
+                if(applyRules(i)){
+                    changed = true;
+                }
+            }
+        }
+
+        if(getTotalBytesSaved() > 0){
+            // lay the code out again to get the new distances, and give up if two branches share a jump that now
+            // needs two different distances
+            HashMap<Integer, Integer> jumpDistances = new HashMap<Integer, Integer>();
+            int offset = 0;
+            for(MachineInstruction instruction: instructions){
+                instruction.setOffset(offset);
+                offset += instruction.getLength();
+            }
+            for(MachineInstruction instruction: instructions){
+                if(instruction.getOpCode() == Emitter.BNE){
+                    int distance = (instruction.getTarget().getOffset() - instruction.getOffset() - 2) & 0xFF;
+                    if(instruction.getRelocation() != null){
+                        Integer other = jumpDistances.put(instruction.getRelocation().getIndex(), distance);
+                        if(other != null && other != distance){
+                            bytesSaved = new int[RULE_NAMES.length];
+                            return 0;
+                        }
+                    }
+                    else{
+                        instruction.setOperand(distance);
+                    }
+                }
+            }
+            for(Integer id: jumpDistances.keySet()){
+                jumpTable.getItem(id).setDistance(jumpDistances.get(id));
+            }
+            emitter.replaceCode(instructions);
+        }
+
+        return getTotalBytesSaved();
+    }
+
+    /**
+     * Tie every branch to the instruction it jumps to
+     * @param jumpTable with every jump distance
+     * @return false if some branch doesn't land on an instruction
+     */
+    private boolean findBranchTargets(JumpTable jumpTable){
+        HashMap<Integer, MachineInstruction> byOffset = new HashMap<Integer, MachineInstruction>();
+        for(MachineInstruction instruction: instructions){
+            byOffset.put(instruction.getOffset(), instruction);
+        }
+        for(MachineInstruction instruction: instructions){
+            if(instruction.getOpCode() == Emitter.BNE){
+                int distance = instruction.getOperand();
+                if(instruction.getRelocation() != null){
+                    distance = jumpTable.getItem(instruction.getRelocation().getIndex()).getDistance();
+                }
+                MachineInstruction target = byOffset.get((instruction.getOffset() + 2 + distance) & 0xFF);
+                if(target == null){
+                    return false;
+                }
+                instruction.setTarget(target);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply the first rule that matches at an instruction
+     * @param i position of instruction
+     * @return true if the code changed
+     */
+    private boolean applyRules(int i){
+        MachineInstruction current = instructions.get(i);
+        MachineInstruction next = null;
+        if(i + 1 < instructions.size() && !instructions.get(i + 1).isBranchTarget()){
+            next = instructions.get(i + 1);
+        }
+
+        // store then reload the same address -> A already holds the value
+        if(enabled[STORE_RELOAD] && next != null && current.getOpCode() == Emitter.STA &&
+                next.getOpCode() == Emitter.LDA_MEM && current.sameAddress(next)){
+            remove(i + 1, STORE_RELOAD);
+            return true;
+        }
+        // load then store back to the same address -> memory already holds the value
+        if(enabled[LOAD_STORE_SAME] && next != null && current.getOpCode() == Emitter.LDA_MEM &&
+                next.getOpCode() == Emitter.STA && current.sameAddress(next)){
+            remove(i + 1, LOAD_STORE_SAME);
+            return true;
+        }
+        // clear A then add a value -> load the value
+        if(enabled[CLEAR_ADD] && next != null && current.getOpCode() == Emitter.LDA_CONST &&
+                current.getOperand() == 0x00 && next.getOpCode() == Emitter.ADC){
+            // turn the first instruction into the load, so a branch to it still lands on the load
+            current.setOpCode(Emitter.LDA_MEM);
+            current.setOperand(next.getOperand());
+            current.setRelocation(next.getRelocation());
+            remove(i + 1, CLEAR_ADD);
+            // the load is one byte longer than the constant load it replaced
+            bytesSaved[CLEAR_ADD]--;
+            return true;
+        }
+        // load a constant the register already holds
+        if(enabled[REDUNDANT_LOAD] && !current.isBranchTarget() && holdsConstant(i)){
+            remove(i, REDUNDANT_LOAD);
+            return true;
+        }
+        // branch to the instruction right after it
+        if(enabled[BRANCH_TO_NEXT] && current.getOpCode() == Emitter.BNE && i + 1 < instructions.size() &&
+                current.getTarget() == instructions.get(i + 1) && !current.isBranchTarget()){
+            remove(i, BRANCH_TO_NEXT);
+            return true;
+        }
+        // store to a temporary variable nothing reads
+        if(enabled[UNREAD_TEMP_STORE] && !current.isBranchTarget() && current.getOpCode() == Emitter.STA &&
+                current.getRelocation() != null && isUnreadTemp(current)){
+            remove(i, UNREAD_TEMP_STORE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if the register a constant load writes already holds the constant, by looking back to the last write of
+     * the register without passing a branch target
+     * @param i position of load
+     * @return true if the load can be removed
+     */
+    private boolean holdsConstant(int i){
+        MachineInstruction load = instructions.get(i);
+        int opCode = load.getOpCode();
+        if(opCode != Emitter.LDA_CONST && opCode != Emitter.LDX_CONST && opCode != Emitter.LDY_CONST){
+            return false;
+        }
+        for(int j = i - 1; j >= 0; j--){
+            MachineInstruction previous = instructions.get(j);
+            if(writesSameRegister(previous.getOpCode(), opCode)){
+                return previous.getOpCode() == opCode && previous.getOperand() == load.getOperand();
+            }
+            // the register could hold anything when jumped to
+            if(previous.isBranchTarget()){
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if an instruction writes the register a constant load writes
+     * @param opCode of instruction, loadOpCode of constant load
+     * @return true if same register
+     */
+    private boolean writesSameRegister(int opCode, int loadOpCode){
+        switch(loadOpCode){
+            case Emitter.LDA_CONST:
+                return opCode == Emitter.LDA_CONST || opCode == Emitter.LDA_MEM || opCode == Emitter.ADC;
+            case Emitter.LDX_CONST:
+                return opCode == Emitter.LDX_CONST || opCode == Emitter.LDX_MEM;
+            default:
+                return opCode == Emitter.LDY_CONST || opCode == Emitter.LDY_MEM;
+        }
+    }
+
+    /**
+     * Check if a store goes to a temporary variable no instruction reads
+     * @param store instruction
+     * @return true if unread temp
+     */
+    private boolean isUnreadTemp(MachineInstruction store){
+        Relocation relocation = store.getRelocation();
+        if(relocation.getKind() != Relocation.STATIC_ADDRESS || !temps[relocation.getIndex()]){
+            return false;
+        }
+        for(MachineInstruction instruction: instructions){
+            if(instruction.getOpCode() != Emitter.STA && instruction.getRelocation() != null &&
+                    store.sameAddress(instruction)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove an instruction and count the bytes saved
+     * @param i position of instruction, rule that removed it
+     */
+    private void remove(int i, int rule){
+        bytesSaved[rule] += instructions.remove(i).getLength();
+    }
+}
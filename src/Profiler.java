@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+
+/**
+ * This class runs a program on the emulator one instruction at a time and counts the instructions executed and the
+ * cycles they take at every code address. With the source map of the program, the counts are added up by source
+ * statement and printed as a report of the statements that take the most cycles.
+ *
+ * Cycle costs are those of the real 6502 for the addressing modes the 6502a uses: 2 for a constant load, 4 for a
+ * memory load, store, add, or compare, 6 for an increment, and 7 for a break. A branch takes 2 cycles, or 3 when it
+ * is taken (the whole program is in one page, so a branch never crosses a page). The system call FF has no 6502
+ * counterpart and is counted like a 6 cycle subroutine call, not counting the printing itself.
+ *
+ * @author Emily Doran
+ *
+ */
+public class Profiler {
+
+    // statements listed in the report
+    private static final int REPORT_SIZE = 10;
+
+    private Emulator emulator;
+    private SourceMap sourceMap;
+
+    // instructions executed and cycles taken at each code address
+    private long[] counts = new long[Emitter.MEMORY_SIZE];
+    private long[] cycles = new long[Emitter.MEMORY_SIZE];
+    private long totalCycles = 0;
+
+    /**
+     * Creates a new instance of Profiler
+     * @param image 256 byte memory image to run, sourceMap of the image's code
+     */
+    public Profiler(byte[] image, SourceMap sourceMap){
+        emulator = new Emulator(image);
+        this.sourceMap = sourceMap;
+    }
+
+    /**
+     * Run the program, counting each instruction at its address
+     * @param stepLimit most instructions to execute
+     * @return execution state
+     */
+    public int run(int stepLimit){
+        while(emulator.getState() == Emulator.RUNNING && emulator.getSteps() < stepLimit){
+            int address = emulator.getPC();
+            int opCode = emulator.getMemory(address);
+            emulator.step();
+            // a branch that is taken doesn't end up at the instruction after it
+            boolean taken = emulator.getPC() != (address + Emitter.instructionLength(opCode)) % Emitter.MEMORY_SIZE;
+            int cost = cycleCost(opCode, taken);
+            counts[address]++;
+            cycles[address] += cost;
+            totalCycles += cost;
+        }
+        return emulator.run(stepLimit);
+    }
+
+    /**
+     * Get the emulator the program runs on
+     * @return emulator
+     */
+    public Emulator getEmulator(){
+        return emulator;
+    }
+
+    /**
+     * Get the cycles taken by every instruction executed
+     * @return total cycles
+     */
+    public long getTotalCycles(){
+        return totalCycles;
+    }
+
+    /**
+     * Get the number of times the instruction at an address was executed
+     * @param address in code
+     * @return count
+     */
+    public long getCount(int address){
+        return counts[address];
+    }
+
+    /**
+     * Get the cycles taken by the instruction at an address over every time it was executed
+     * @param address in code
+     * @return cycles
+     */
+    public long getCycles(int address){
+        return cycles[address];
+    }
+
+    /**
+     * Get the cycles an instruction takes
+     * @param opCode of instruction, taken true if it is a branch that was taken
+     * @return cycles (0 for an op code the 6502a doesn't have)
+     */
+    public static int cycleCost(int opCode, boolean taken){
+        switch(opCode){
+            case Emitter.LDA_CONST:
+            case Emitter.LDX_CONST:
+            case Emitter.LDY_CONST:
+            case Emitter.NOP:
+                return 2;
+            case Emitter.LDA_MEM:
+            case Emitter.LDX_MEM:
+            case Emitter.LDY_MEM:
+            case Emitter.STA:
+            case Emitter.ADC:
+            case Emitter.CPX:
+                return 4;
+            case Emitter.BNE:
+                if(taken){
+                    return 3;
+                }
+                return 2;
+            case Emitter.INC:
+            case Emitter.SYS:
+                return 6;
+            case Emitter.BRK:
+                return 7;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Print the statements that took the most cycles, with the instructions they executed and their share of the
+     * program's cycles
+     * @param programNum number of program
+     */
+    public void printReport(int programNum){
+        // add up the counts of every range of each statement
+        ArrayList<Node> statements = new ArrayList<Node>();
+        ArrayList<Long> statementCounts = new ArrayList<Long>();
+        ArrayList<Long> statementCycles = new ArrayList<Long>();
+        for(int entry = 0; entry < sourceMap.size(); entry++){
+            int index = statements.indexOf(sourceMap.getStatement(entry));
+            if(index == -1){
+                statements.add(sourceMap.getStatement(entry));
+                statementCounts.add(0L);
+                statementCycles.add(0L);
+                index = statements.size() - 1;
+            }
+            for(int address = sourceMap.getStart(entry); address < sourceMap.getEnd(entry); address++){
+                statementCounts.set(index, statementCounts.get(index) + counts[address]);
+                statementCycles.set(index, statementCycles.get(index) + cycles[address]);
+            }
+        }
+
+        // most cycles first (statements that take the same cycles stay in code order)
+        for(int i = 1; i < statements.size(); i++){
+            for(int j = i; j > 0 && statementCycles.get(j) > statementCycles.get(j - 1); j--){
+                swap(statements, j);
+                swap(statementCounts, j);
+                swap(statementCycles, j);
+            }
+        }
+
+        System.out.println("\nProgram " + programNum + " Profile: " + emulator.getSteps() + " instruction(s), " +
+                totalCycles + " cycle(s)");
+        System.out.println("----------------------------------------------------------------");
+        System.out.printf("%-6s%-30s%-14s%-10s%-4s\n", "Rank", "Statement", "Instructions", "Cycles", "Share");
+        System.out.println("----------------------------------------------------------------");
+        for(int i = 0; i < statements.size() && i < REPORT_SIZE && statementCycles.get(i) > 0; i++){
+            System.out.printf("%-6d%-30s%-14d%-10d%.1f%%\n", i + 1, SourceMap.describe(statements.get(i)),
+                    statementCounts.get(i), statementCycles.get(i), 100.0 * statementCycles.get(i) / totalCycles);
+        }
+    }
+
+    /**
+     * Swap an element of a list with the one before it
+     * @param list, index of element
+     */
+    private <T> void swap(ArrayList<T> list, int index){
+        T element = list.get(index);
+        list.set(index, list.get(index - 1));
+        list.set(index - 1, element);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * This class keeps track of what the A, X and Y registers hold while code is generated: a known constant, the value
+ * of a memory location, both, or nothing known. The emitter uses it to leave out loads (and stores) that would not
+ * change anything. Everything is forgotten at a branch target, since the registers could hold anything there.
+ *
+ * Memory locations are given as keys by the emitter, so a static variable whose address isn't known yet can still be
+ * tracked.
+ *
+ * @author Emily Doran
+ *
+ */
+public class RegisterTracker {
+
+    public static final int A = 0;
+    public static final int X = 1;
+    public static final int Y = 2;
+
+    private static final int UNKNOWN = -1;
+
+    // constant each register holds (UNKNOWN if not known)
+    private int[] constant = {UNKNOWN, UNKNOWN, UNKNOWN};
+    // memory location each register holds the value of (UNKNOWN if none)
+    private int[] memory = {UNKNOWN, UNKNOWN, UNKNOWN};
+
+    /**
+     * Check if a register holds a constant
+     * @param register A, X, or Y, value of constant
+     * @return true if register holds the constant
+     */
+    public boolean holdsConstant(int register, int value){
+        return constant[register] == value;
+    }
+
+    /**
+     * Check if a register holds the value of a memory location
+     * @param register A, X, or Y, key of memory location
+     * @return true if register holds the value
+     */
+    public boolean holdsMemory(int register, int key){
+        return memory[register] == key;
+    }
+
+    /**
+     * A register was loaded with a constant
+     * @param register A, X, or Y, value of constant
+     */
+    public void loadConstant(int register, int value){
+        constant[register] = value;
+        memory[register] = UNKNOWN;
+    }
+
+    /**
+     * A register was loaded from a memory location
+     * @param register A, X, or Y, key of memory location
+     */
+    public void loadMemory(int register, int key){
+        constant[register] = UNKNOWN;
+        memory[register] = key;
+    }
+
+    /**
+     * The accumulator was stored to a memory location, so the location now holds the accumulator's value
+     * @param key of memory location
+     */
+    public void storeAccumulator(int key){
+        writeMemory(key);
+        memory[A] = key;
+    }
+
+    /**
+     * A memory location was changed, so no register holds its value anymore
+     * @param key of memory location
+     */
+    public void writeMemory(int key){
+        for(int register = A; register <= Y; register++){
+            if(memory[register] == key){
+                memory[register] = UNKNOWN;
+            }
+        }
+    }
+
+    /**
+     * A register was changed to an unknown value
+     * @param register A, X, or Y
+     */
+    public void clobber(int register){
+        constant[register] = UNKNOWN;
+        memory[register] = UNKNOWN;
+    }
+
+    /**
+     * Forget what every register holds (at a branch target)
+     */
+    public void invalidate(){
+        for(int register = A; register <= Y; register++){
+            clobber(register);
+        }
+    }
+}
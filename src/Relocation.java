@@ -0,0 +1,58 @@
+/**
+ * This class stores a code position that has to be filled in once static variable addresses and jump distances are
+ * known
+ *
+ * @author Emily Doran
+ *
+ */
+public class Relocation {
+
+    // two byte address of a static variable
+    public static final int STATIC_ADDRESS = 0;
+    // one byte branch distance of a jump
+    public static final int JUMP_DISTANCE = 1;
+
+    private int offset;
+    private String symbol;
+    private int index;
+    private int kind;
+
+    public Relocation(int offset, String symbol, int index, int kind){
+        this.offset = offset;
+        this.symbol = symbol;
+        this.index = index;
+        this.kind = kind;
+    }
+
+    /**
+     * Gets the code position of the operand to fill in
+     * @return offset in memory image
+     */
+    public int getOffset(){
+        return offset;
+    }
+
+    /**
+     * Gets the placeholder name (static variable temp or jump temp)
+     * @return symbol
+     */
+    public String getSymbol(){
+        return symbol;
+    }
+
+    /**
+     * Gets the position of the symbol in the static variable table or jump table
+     * @return index of symbol
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     * Gets the kind of operand to fill in
+     * @return STATIC_ADDRESS or JUMP_DISTANCE
+     */
+    public int getKind(){
+        return kind;
+    }
+}
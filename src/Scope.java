@@ -14,6 +14,12 @@ public class Scope {
 
     private Hashtable<String, SymbolTableItem> scopeItems = new Hashtable<String, SymbolTableItem>();
 
+    // one bit per variable name (a-z) so warnings can be computed for the whole scope at once
+    private int declaredBits = 0;
+    private int usedBits = 0;
+    private int initializedBits = 0;
+    private ArrayList<String> declarationOrder = new ArrayList<String>();
+
     /**
      * Creates a new instance of Scope
      * @param scopeNum, HashTable of variables in scope
@@ -29,6 +35,67 @@ public class Scope {
      */
     public void addItem(String name, SymbolTableItem item){
         scopeItems.put(name, item);
+        declaredBits |= getBit(name);
+        declarationOrder.add(name);
+    }
+
+    /**
+     * Mark a variable in this scope as used
+     * @param name of variable
+     */
+    public void setUsed(String name){
+        scopeItems.get(name).setUsed();
+        usedBits |= getBit(name);
+    }
+
+    /**
+     * Mark a variable in this scope as initialized
+     * @param name of variable
+     */
+    public void setInitialized(String name){
+        scopeItems.get(name).setInitialized();
+        initializedBits |= getBit(name);
+    }
+
+    /**
+     * Get the bitset of variables declared in this scope
+     * @return declared bits (bit 0 = a ... bit 25 = z)
+     */
+    public int getDeclaredBits(){
+        return declaredBits;
+    }
+
+    /**
+     * Get the bitset of variables used in this scope
+     * @return used bits (bit 0 = a ... bit 25 = z)
+     */
+    public int getUsedBits(){
+        return usedBits;
+    }
+
+    /**
+     * Get the bitset of variables initialized in this scope
+     * @return initialized bits (bit 0 = a ... bit 25 = z)
+     */
+    public int getInitializedBits(){
+        return initializedBits;
+    }
+
+    /**
+     * Get the variable names of this scope in the order they were declared
+     * @return declaration order
+     */
+    public ArrayList<String> getDeclarationOrder(){
+        return declarationOrder;
+    }
+
+    /**
+     * Get the bit for a variable name (variable names are a single char a-z)
+     * @param name of variable
+     * @return bit for the variable
+     */
+    public static int getBit(String name){
+        return 1 << (name.charAt(0) - 'a');
     }
 
     /**
@@ -0,0 +1,132 @@
+/**
+ * This class is an immutable snapshot of the variables visible at one point in the program. Declaring a variable or
+ * entering a scope returns a new snapshot that shares everything before it with the old one, so a snapshot never
+ * changes once it is created and can be kept on the AST and read by any number of threads without copying or locking.
+ *
+ * Each snapshot is one link of a chain: either a variable binding or the marker for entering a new scope. Looking a
+ * variable up walks back through the chain, so the innermost (most recent) declaration is found first.
+ *
+ * @author Emily Doran
+ *
+ */
+public final class ScopeSnapshot {
+
+    // snapshot before any scope has been entered
+    public static final ScopeSnapshot EMPTY = new ScopeSnapshot(-1, null, null, null);
+
+    private final int scopeNum;
+    private final String name;
+    private final SymbolTableItem item;
+    private final ScopeSnapshot previous;
+
+    /**
+     * Creates a new link of the chain (use enterScope and declare to build snapshots)
+     * @param scopeNum of the link, name of variable (null for scope marker), item of variable, previous link
+     */
+    private ScopeSnapshot(int scopeNum, String name, SymbolTableItem item, ScopeSnapshot previous){
+        this.scopeNum = scopeNum;
+        this.name = name;
+        this.item = item;
+        this.previous = previous;
+    }
+
+    /**
+     * Get the snapshot after entering a new scope
+     * @param newScopeNum number of the scope being entered
+     * @return snapshot inside the new scope
+     */
+    public ScopeSnapshot enterScope(int newScopeNum){
+        return new ScopeSnapshot(newScopeNum, null, null, this);
+    }
+
+    /**
+     * Get the snapshot after declaring a variable in the current scope
+     * @param varName name of variable, varItem SymbolTableItem of variable
+     * @return snapshot including the new variable
+     */
+    public ScopeSnapshot declare(String varName, SymbolTableItem varItem){
+        return new ScopeSnapshot(scopeNum, varName, varItem, this);
+    }
+
+    /**
+     * Get the snapshot of the parent scope, as it was when the current scope was entered
+     * @return parent scope snapshot (EMPTY if we are not inside a scope)
+     */
+    public ScopeSnapshot getParent(){
+        ScopeSnapshot link = this;
+        // skip the bindings of the current scope to get to its marker
+        while(link.name != null){
+            link = link.previous;
+        }
+        if(link.previous == null){
+            return EMPTY;
+        }
+        return link.previous;
+    }
+
+    /**
+     * Get the number of the current scope
+     * @return scope number (-1 if we are not inside a scope)
+     */
+    public int getScopeNum(){
+        return scopeNum;
+    }
+
+    /**
+     * Look up the innermost declaration of a variable
+     * @param varName name of variable
+     * @return SymbolTableItem of variable (null if not declared)
+     */
+    public SymbolTableItem lookup(String varName){
+        ScopeSnapshot link = find(varName);
+        if(link == null){
+            return null;
+        }
+        return link.item;
+    }
+
+    /**
+     * Look up the scope of the innermost declaration of a variable
+     * @param varName name of variable
+     * @return variable scope num (-1 if not declared)
+     */
+    public int lookupScope(String varName){
+        ScopeSnapshot link = find(varName);
+        if(link == null){
+            return -1;
+        }
+        return link.scopeNum;
+    }
+
+    /**
+     * Check if a variable is declared in the current scope (not counting parent scopes)
+     * @param varName name of variable
+     * @return true if declared in current scope
+     */
+    public boolean isDeclaredInCurrentScope(String varName){
+        ScopeSnapshot link = this;
+        while(link.name != null){
+            if(link.name.equals(varName)){
+                return true;
+            }
+            link = link.previous;
+        }
+        return false;
+    }
+
+    /**
+     * Find the binding of a variable by walking back through the chain
+     * @param varName name of variable
+     * @return binding link (null if not declared)
+     */
+    private ScopeSnapshot find(String varName){
+        ScopeSnapshot link = this;
+        while(link != null){
+            if(link.name != null && link.name.equals(varName)){
+                return link;
+            }
+            link = link.previous;
+        }
+        return null;
+    }
+}
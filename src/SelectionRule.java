@@ -0,0 +1,98 @@
+/**
+ * This class stores one tree pattern of the instruction selector: the nonterminal it produces (where the value ends
+ * up), the tree operation it matches, the nonterminals its children have to be produced in, its cost in bytes, and
+ * the action that emits its instructions. A chain rule moves a value that is already in one nonterminal to another.
+ *
+ * @author Emily Doran
+ *
+ */
+public class SelectionRule {
+
+    // nonterminals (where a value is)
+    public static final int STATEMENT = 0;
+    public static final int IMMEDIATE = 1;
+    public static final int MEMORY = 2;
+    public static final int A = 3;
+    public static final int X = 4;
+    public static final int Y = 5;
+    public static final int NUM_NONTERMINALS = 6;
+
+    // tree operations other than the IRInstruction ops
+    public static final int CHAIN = -1;
+    public static final int CONSTANT_LEAF = -2;
+    public static final int MEMORY_LEAF = -3;
+
+    private String name;
+    private int result;
+    private int op;
+    private int left;
+    private int right;
+    private int cost;
+    private int action;
+
+    public SelectionRule(String name, int result, int op, int left, int right, int cost, int action){
+        this.name = name;
+        this.result = result;
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.cost = cost;
+        this.action = action;
+    }
+
+    /**
+     * Get the name of the pattern
+     * @return name
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Get the nonterminal the pattern produces
+     * @return nonterminal
+     */
+    public int getResult(){
+        return result;
+    }
+
+    /**
+     * Get the tree operation the pattern matches
+     * @return IRInstruction op, CHAIN, CONSTANT_LEAF, or MEMORY_LEAF
+     */
+    public int getOp(){
+        return op;
+    }
+
+    /**
+     * Get the nonterminal the first child has to be produced in (the source of a chain rule)
+     * @return nonterminal (-1 if none)
+     */
+    public int getLeft(){
+        return left;
+    }
+
+    /**
+     * Get the nonterminal the second child has to be produced in
+     * @return nonterminal (-1 if none)
+     */
+    public int getRight(){
+        return right;
+    }
+
+    /**
+     * Get the bytes the pattern's own instructions take
+     * @return cost
+     */
+    public int getCost(){
+        return cost;
+    }
+
+    /**
+     * Get the action that emits the pattern's instructions
+     * @return action id
+     */
+    public int getAction(){
+        return action;
+    }
+}
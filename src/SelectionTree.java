@@ -0,0 +1,118 @@
+/**
+ * This class stores a node of an expression tree built from intermediate code for instruction selection. Leaves are
+ * constants and memory operands, and inner nodes are IR operations whose single-use temps have been replaced by the
+ * tree that computes them. Labelling stores the cheapest rule producing the node's value in each nonterminal.
+ *
+ * @author Emily Doran
+ *
+ */
+public class SelectionTree {
+
+    private int op;
+    private SelectionTree left;
+    private SelectionTree right;
+    // leaf operand, or destination of a COPY statement
+    private IROperand operand;
+
+    // cheapest cost and rule for each nonterminal (cost -1 if the node can't be produced there)
+    private int[] cost = new int[SelectionRule.NUM_NONTERMINALS];
+    private SelectionRule[] rule = new SelectionRule[SelectionRule.NUM_NONTERMINALS];
+
+    public SelectionTree(int op, SelectionTree left, SelectionTree right, IROperand operand){
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.operand = operand;
+        for(int i = 0; i < cost.length; i++){
+            cost[i] = -1;
+        }
+    }
+
+    /**
+     * Create a leaf for an operand
+     * @param operand constant, variable, or temp
+     * @return leaf node
+     */
+    public static SelectionTree leaf(IROperand operand){
+        if(operand.isConstant()){
+            return new SelectionTree(SelectionRule.CONSTANT_LEAF, null, null, operand);
+        }
+        return new SelectionTree(SelectionRule.MEMORY_LEAF, null, null, operand);
+    }
+
+    /**
+     * Get the operation of the node
+     * @return IRInstruction op, CONSTANT_LEAF, or MEMORY_LEAF
+     */
+    public int getOp(){
+        return op;
+    }
+
+    /**
+     * Get the first child
+     * @return left child (null if none)
+     */
+    public SelectionTree getLeft(){
+        return left;
+    }
+
+    /**
+     * Get the second child
+     * @return right child (null if none)
+     */
+    public SelectionTree getRight(){
+        return right;
+    }
+
+    /**
+     * Get the operand of a leaf, or the destination of a COPY
+     * @return operand
+     */
+    public IROperand getOperand(){
+        return operand;
+    }
+
+    /**
+     * Get the cheapest cost of producing the node in a nonterminal
+     * @param nonterminal
+     * @return cost in bytes (-1 if not possible)
+     */
+    public int getCost(int nonterminal){
+        return cost[nonterminal];
+    }
+
+    /**
+     * Get the cheapest rule producing the node in a nonterminal
+     * @param nonterminal
+     * @return rule (null if not possible)
+     */
+    public SelectionRule getRule(int nonterminal){
+        return rule[nonterminal];
+    }
+
+    /**
+     * Record a rule if it is cheaper than the best one so far
+     * @param nonterminal produced, rule, cost in bytes including the children
+     * @return true if the rule was recorded
+     */
+    public boolean offer(int nonterminal, SelectionRule newRule, int newCost){
+        if(cost[nonterminal] == -1 || newCost < cost[nonterminal]){
+            cost[nonterminal] = newCost;
+            rule[nonterminal] = newRule;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if the tree reads an operand
+     * @param other operand
+     * @return true if a leaf is the operand
+     */
+    public boolean reads(IROperand other){
+        if(op == SelectionRule.MEMORY_LEAF){
+            return operand.same(other);
+        }
+        return (left != null && left.reads(other)) || (right != null && right.reads(other));
+    }
+}
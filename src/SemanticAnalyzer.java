@@ -13,6 +13,7 @@ public class SemanticAnalyzer {
 
     private ArrayList<Token> tokens;
     private boolean verboseMode;
+    private CompilerOptions options;
     private int tokIndex = 0;
 
     private SyntaxTree ast = new SyntaxTree();
@@ -22,16 +23,18 @@ public class SemanticAnalyzer {
 
     SymbolTable symbolTable = new SymbolTable();
     private int scopeCount = 0;
-    private int currentScope = 0;
-    private int prevScope;
+    // immutable snapshot of the variables visible at the current point of the program
+    private ScopeSnapshot scopeSnapshot = ScopeSnapshot.EMPTY;
 
     /**
      * Creates a new instance of Semantic Analysis
-     * @param tokens, verboseMode, passedLex, passedParse, programNum
+     * @param tokens, verboseMode, passedLex, passedParse, programNum, options
      */
-    public SemanticAnalyzer(ArrayList<Token> tokens, boolean verboseMode, boolean passedLex, boolean passedParse, int programNum) {
+    public SemanticAnalyzer(ArrayList<Token> tokens, boolean verboseMode, boolean passedLex, boolean passedParse, int programNum,
+                            CompilerOptions options) {
         this.tokens = tokens;
         this.verboseMode = verboseMode;
+        this.options = options;
 
         // make sure Lex and Parse didn't throw any errors before we begin Semantic Analysis
         if(passedLex && passedParse){
@@ -54,7 +57,7 @@ public class SemanticAnalyzer {
                 symbolTable.printSymbolTable();
 
                 // call Code Generation
-                CodeGen codeGen = new CodeGen(ast, symbolTable, programNum, verboseMode, passedLex, passedParse, true);
+                CodeGen codeGen = new CodeGen(ast, symbolTable, programNum, verboseMode, passedLex, passedParse, true, options);
             }
             // errors thrown -> stop compilation
             else{
@@ -62,7 +65,7 @@ public class SemanticAnalyzer {
                 System.out.println("\nSymbol Table for program " + programNum + ": Skipped due to SEMANTIC ANALYSIS error(s)");
 
                 // call Code Generation
-                CodeGen codeGen = new CodeGen(ast, symbolTable, programNum, verboseMode, passedLex, passedParse, false);
+                CodeGen codeGen = new CodeGen(ast, symbolTable, programNum, verboseMode, passedLex, passedParse, false, options);
             }
 
         }
@@ -89,13 +92,15 @@ public class SemanticAnalyzer {
         ast.addNode("BLOCK","branch");
         tokIndex++;
 
-        // add a new scope to the symbol table and increment scopeCount and currentScope vars
+        // add a new scope to the symbol table, enter it, and increment scopeCount
         Hashtable<String, SymbolTableItem> newHash = new Hashtable<String, SymbolTableItem>();
         Scope tempScope = new Scope(scopeCount, newHash);
-        prevScope = currentScope;
+        int prevScope = scopeSnapshot.getScopeNum();
         symbolTable.addScope(tempScope);
+        scopeSnapshot = scopeSnapshot.enterScope(scopeCount);
+        ast.getCurrent().setScopeSnapshot(scopeSnapshot);
         scopeCount++;
-        currentScope = scopeCount-1;
+        int currentScope = scopeSnapshot.getScopeNum();
         // output entering new scope
         if(verboseMode) {
             System.out.println("SEMANTIC ANALYSIS: New Scope [ " + currentScope + " ] has been entered at line: "
@@ -151,12 +156,12 @@ public class SemanticAnalyzer {
             stmt();
         }
         else{
-            if(symbolTable.get(currentScope).getParent() != null) {
+            if(scopeSnapshot.getParent() != ScopeSnapshot.EMPTY) {
                 if(verboseMode) {
-                    System.out.println("SEMANTIC ANALYSIS: Exiting scope [ " + currentScope + " ] and entering scope [ "
-                            + symbolTable.get(currentScope).getParent().getScopeNum() + " ] at line: " + tokens.get(tokIndex - 1).getLine() + ".");
+                    System.out.println("SEMANTIC ANALYSIS: Exiting scope [ " + scopeSnapshot.getScopeNum() + " ] and entering scope [ "
+                            + scopeSnapshot.getParent().getScopeNum() + " ] at line: " + tokens.get(tokIndex - 1).getLine() + ".");
                 }
-                currentScope = symbolTable.get(currentScope).getParent().getScopeNum();
+                scopeSnapshot = scopeSnapshot.getParent();
                 ast.moveParent();
             }
         }
@@ -167,7 +172,7 @@ public class SemanticAnalyzer {
      * PrintStatement ::== print ( Expr )
      */
     public void printStmt() {
-        ast.addNode("Print","branch");
+        addStatementNode("Print");
         // skip the opening parenthesis
         tokIndex++;
         expr();
@@ -182,7 +187,7 @@ public class SemanticAnalyzer {
      * AssignStatement ::== Id = Expr
      */
     public void assignStmt(){
-        ast.addNode("Assign","branch");
+        addStatementNode("Assign");
         ast.addNode(tokens.get(tokIndex-1).getValue(),"child");
 
         // get variable type
@@ -208,14 +213,15 @@ public class SemanticAnalyzer {
      * VarDecl ::== type Id
      */
     public void varDecl() {
-        ast.addNode("VariableDeclaration","branch");
+        addStatementNode("VariableDeclaration");
         ast.addNode(tokens.get(tokIndex-1).getValue(), "child");
         ast.addNode(tokens.get(tokIndex).getValue(), "child");
         // check that variable doesn't already exist in current scope
-        if(symbolTable.get(currentScope).getScopeItems().get(tokens.get(tokIndex).getValue()) == null){
+        if(!scopeSnapshot.isDeclaredInCurrentScope(tokens.get(tokIndex).getValue())){
             // add var to symbol table
             SymbolTableItem newItem = new SymbolTableItem(tokens.get(tokIndex-1).getValue(), tokens.get(tokIndex-1).getLine());
-            symbolTable.get(currentScope).addItem(tokens.get(tokIndex).getValue(), newItem);
+            symbolTable.get(scopeSnapshot.getScopeNum()).addItem(tokens.get(tokIndex).getValue(), newItem);
+            scopeSnapshot = scopeSnapshot.declare(tokens.get(tokIndex).getValue(), newItem);
             if(verboseMode) {
                 System.out.println("SEMANTIC ANALYSIS: Variable [ " + tokens.get(tokIndex).getValue()
                         + " ] has been declared at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -238,10 +244,10 @@ public class SemanticAnalyzer {
      * WhileStatement ::== while BooleanExpr Block
      */
     public void whileStmt() {
-        ast.addNode("While","branch");
+        addStatementNode("While");
         booleanExpr();
         block();
-        ast.moveParent();
+        // the closing brace of the block already moved back up to the While node
         ast.moveParent();
     }
 
@@ -250,10 +256,10 @@ public class SemanticAnalyzer {
      * IfStatement ::== if BooleanExpr Block
      */
     public void ifStmt() {
-        ast.addNode("If","branch");
+        addStatementNode("If");
         booleanExpr();
         block();
-        ast.moveParent();
+        // the closing brace of the block already moved back up to the If node
         ast.moveParent();
     }
 
@@ -274,10 +280,12 @@ public class SemanticAnalyzer {
         else if(checkToken("T_ID")){
             ast.addNode(tokens.get(tokIndex-1).getValue(), "child");
 
+            int varScope = scopeSnapshot.lookupScope(tokens.get(tokIndex-1).getValue());
+
             // check current scope for variable
-            if(symbolTable.get(currentScope).getScopeItems().get(tokens.get(tokIndex-1).getValue()) != null) {
+            if(varScope != -1 && varScope == scopeSnapshot.getScopeNum()) {
                 // set variable is used boolean
-                symbolTable.get(currentScope).getScopeItems().get(tokens.get(tokIndex-1).getValue()).setUsed();
+                symbolTable.get(varScope).setUsed(tokens.get(tokIndex-1).getValue());
                 if (verboseMode) {
                     System.out.println("SEMANTIC ANALYSIS: Variable [ " + tokens.get(tokIndex-1).getValue()
                             + " ] has been used at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -347,88 +355,68 @@ public class SemanticAnalyzer {
                 }
             }
             // check parent scope for variable
-            else if(symbolTable.get(currentScope).getParent() != null){
-                int tempScope = currentScope;
-                // while parent scope exists, check for variable existance
-                while(symbolTable.get(tempScope).getParent() != null){
-
-                    if(symbolTable.get(tempScope).getParent().getScopeItems().get(tokens.get(tokIndex-1).getValue()) != null) {
-                        // set variable is used boolean
-                        symbolTable.get(tempScope).getParent().getScopeItems().get(tokens.get(tokIndex-1).getValue()).setUsed();
-                        if (verboseMode) {
-                            System.out.println("SEMANTIC ANALYSIS: Variable [ " + tokens.get(tokIndex-1).getValue()
-                                    + " ] has been used at (" + tokens.get(tokIndex - 1).getLine() + ":" +
-                                    tokens.get(tokIndex - 1).getPosition() + ")");
-                        }
+            else if(varScope != -1){
+                // set variable is used boolean
+                symbolTable.get(varScope).setUsed(tokens.get(tokIndex-1).getValue());
+                if (verboseMode) {
+                    System.out.println("SEMANTIC ANALYSIS: Variable [ " + tokens.get(tokIndex-1).getValue()
+                            + " ] has been used at (" + tokens.get(tokIndex - 1).getLine() + ":" +
+                            tokens.get(tokIndex - 1).getPosition() + ")");
+                }
 
-                        // see if we are using the variable in a Boolean Expression, or Assign and that the other
-                        // node is already declared in the tree
-                        if((ast.getCurrent().getName().equals("isEqual") || ast.getCurrent().getName().equals("isNotEqual")
-                                || ast.getCurrent().getName().equals("Assign"))
-                                && ast.getCurrent().getChildren().size() > 1) {
-                            String boolExpType = ast.getCurrent().getChildren().get(0).getName();
-                            // check if other node is bool val
-                            if(boolExpType.equals("true") || boolExpType.equals("false")){
-                                boolExpType = "boolean";
-                            }
-                            // check if other node is digit
-                            else if(boolExpType.matches("[0-9]")){
-                                boolExpType = "int";
-                            }
-                            // check if other node is string
-                            else if(boolExpType.charAt(0) == '"'){
-                                boolExpType = "string";
-                            }
-                            // check if other node is variable
-                            else if(boolExpType.matches("[a-z]")){
-                                boolExpType = getVariableType(boolExpType);
-                            }
-
-                            // get the other node's type
-                            String boolExpType2 = ast.getCurrent().getChildren().get(1).getName();
-                            if(boolExpType2.equals("true") || boolExpType2.equals("false")){
-                                boolExpType2 = "boolean";
-                            }
-                            // other node is digit
-                            else if(boolExpType2.matches("[0-9]")){
-                                boolExpType2 = "int";
-                            }
-                            // other node is string
-                            else if(boolExpType2.charAt(0) == '"'){
-                                boolExpType2 = "string";
-                            }
-                            // other node is variable
-                            else if(boolExpType2.matches("[a-z]")){
-                                boolExpType2 = getVariableType(boolExpType2);
-                            }
-
-                            // make sure the boolean types are equivalent, if NOT throw error
-                            if(!boolExpType.equals(boolExpType2)){
-                                if(ast.getCurrent().getChildren().get(0).getName().equals("Addition")){
-                                    boolExpType = "int";
-                                }
-                                // types not equivalent -> throw error
-                                System.out.println("SEMANTIC ANALYSIS: ERROR: Incorrect Type Comparison - Variable [ " + ast.getCurrent().getChildren().get(0).getName() +
-                                        " ] of type [ " + boolExpType + " ] was compared to type [ " + boolExpType2 + " ] at (" + tokens.get(tokIndex - 1).getLine() + ":" +
-                                        tokens.get(tokIndex - 1).getPosition() + ").");
-                                errorCount++;
-                            }
+                // see if we are using the variable in a Boolean Expression, or Assign and that the other
+                // node is already declared in the tree
+                if((ast.getCurrent().getName().equals("isEqual") || ast.getCurrent().getName().equals("isNotEqual")
+                        || ast.getCurrent().getName().equals("Assign"))
+                        && ast.getCurrent().getChildren().size() > 1) {
+                    String boolExpType = ast.getCurrent().getChildren().get(0).getName();
+                    // check if other node is bool val
+                    if(boolExpType.equals("true") || boolExpType.equals("false")){
+                        boolExpType = "boolean";
+                    }
+                    // check if other node is digit
+                    else if(boolExpType.matches("[0-9]")){
+                        boolExpType = "int";
+                    }
+                    // check if other node is string
+                    else if(boolExpType.charAt(0) == '"'){
+                        boolExpType = "string";
+                    }
+                    // check if other node is variable
+                    else if(boolExpType.matches("[a-z]")){
+                        boolExpType = getVariableType(boolExpType);
+                    }
 
-                        }
+                    // get the other node's type
+                    String boolExpType2 = ast.getCurrent().getChildren().get(1).getName();
+                    if(boolExpType2.equals("true") || boolExpType2.equals("false")){
+                        boolExpType2 = "boolean";
+                    }
+                    // other node is digit
+                    else if(boolExpType2.matches("[0-9]")){
+                        boolExpType2 = "int";
+                    }
+                    // other node is string
+                    else if(boolExpType2.charAt(0) == '"'){
+                        boolExpType2 = "string";
+                    }
+                    // other node is variable
+                    else if(boolExpType2.matches("[a-z]")){
+                        boolExpType2 = getVariableType(boolExpType2);
+                    }
 
-                        tempScope = 0;
-                    }
-                    // get next parent scope (if exists)
-                    else{
-                        tempScope = symbolTable.get(tempScope).getParent().getScopeNum();
-                        // variable was not declared in parent scope either -> throw error
-                        if(tempScope == 0){
-                            System.out.println("SEMANTIC ANALYSIS: ERROR: Undeclared variable [ " + tokens.get(tokIndex-1).getValue() +
-                                    " ] was used at (" + tokens.get(tokIndex - 1).getLine() + ":" +
-                                    tokens.get(tokIndex - 1).getPosition() + ") before being declared.");
-                            errorCount++;
+                    // make sure the boolean types are equivalent, if NOT throw error
+                    if(!boolExpType.equals(boolExpType2)){
+                        if(ast.getCurrent().getChildren().get(0).getName().equals("Addition")){
+                            boolExpType = "int";
                         }
+                        // types not equivalent -> throw error
+                        System.out.println("SEMANTIC ANALYSIS: ERROR: Incorrect Type Comparison - Variable [ " + ast.getCurrent().getChildren().get(0).getName() +
+                                " ] of type [ " + boolExpType + " ] was compared to type [ " + boolExpType2 + " ] at (" + tokens.get(tokIndex - 1).getLine() + ":" +
+                                tokens.get(tokIndex - 1).getPosition() + ").");
+                        errorCount++;
                     }
+
                 }
             }
             // variable was not declared  -> throw error
@@ -507,7 +495,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("int")) {
                     // get scope of variable so we can set it to initialized
                     int varScope = getVariableScope(ast.getCurrent().getParent().getChildren().get(0).getName());
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getParent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getParent().getChildren().get(0).getName());
                     if (verboseMode) {
                         System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getParent().getChildren().get(0).getName()
                                 + " ] has been initialized at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -536,7 +524,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("int")) {
                     // get scope of variable so we can set it to initialized
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getChildren().get(0).getName());
                     if (verboseMode) {
                         System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getChildren().get(0).getName()
                                 + " ] has been initialized at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -612,7 +600,7 @@ public class SemanticAnalyzer {
             if (varType.equals("string")) {
                 int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
                 if(varScope != -1) {
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getChildren().get(0).getName());
                 }
                 if (verboseMode) {
                     System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getChildren().get(0).getName()
@@ -659,9 +647,17 @@ public class SemanticAnalyzer {
         if(tokens.get(tokIndex).getKind().equals("T_L_PAREN")){
             checkToken("T_L_PAREN");
             int count = 0;
+            int depth = 0;
             // look ahead to get the equality or inequality op to add to the AST before adding the two expressions
-            while (!tokens.get(tokIndex).getKind().equals("T_EQUALITY_OP") &&
-                    !tokens.get(tokIndex).getKind().equals("T_INEQUALITY_OP")){
+            // (skipping the ops of nested boolean expressions inside parentheses)
+            while (depth > 0 || (!tokens.get(tokIndex).getKind().equals("T_EQUALITY_OP") &&
+                    !tokens.get(tokIndex).getKind().equals("T_INEQUALITY_OP"))){
+                if(tokens.get(tokIndex).getKind().equals("T_L_PAREN")){
+                    depth++;
+                }
+                else if(tokens.get(tokIndex).getKind().equals("T_R_PAREN")){
+                    depth--;
+                }
                 tokIndex++;
                 count++;
             }
@@ -742,7 +738,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("boolean")) {
                     // get variable scope to set to initialized
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getChildren().get(0).getName());
                     if (verboseMode) {
                         System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getChildren().get(0).getName()
                                 + " ] has been initialized at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -775,7 +771,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("boolean")) {
                     // get variable scope to set to initialized
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getChildren().get(0).getName());
                     if (verboseMode) {
                         System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getChildren().get(0).getName()
                                 + " ] has been initialized at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -812,7 +808,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("boolean")) {
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
                     if(varScope != -1) {
-                        symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setUsed();
+                        symbolTable.get(varScope).setUsed(ast.getCurrent().getChildren().get(0).getName());
                     }
                 }
                 // other var type is not boolean and since we are comparing it to true, throw error for type mismatch
@@ -839,7 +835,7 @@ public class SemanticAnalyzer {
                 // make sure the type is boolean since we are setting it equal to true
                 if (varType.equals("boolean")) {
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
-                    symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setInitialized();
+                    symbolTable.get(varScope).setInitialized(ast.getCurrent().getChildren().get(0).getName());
                     if (verboseMode) {
                         System.out.println("SEMANTIC ANALYSIS: Variable [ " + ast.getCurrent().getChildren().get(0).getName()
                                 + " ] has been initialized at (" + tokens.get(tokIndex - 1).getLine() + ":" +
@@ -876,7 +872,7 @@ public class SemanticAnalyzer {
                 if (varType.equals("boolean")) {
                     int varScope = getVariableScope(ast.getCurrent().getChildren().get(0).getName());
                     if(varScope != -1) {
-                        symbolTable.get(varScope).getScopeItems().get(ast.getCurrent().getChildren().get(0).getName()).setUsed();
+                        symbolTable.get(varScope).setUsed(ast.getCurrent().getChildren().get(0).getName());
                     }
                 }
                 // other var type is not boolean and since we are comparing it to true, throw error for type mismatch
@@ -917,25 +913,10 @@ public class SemanticAnalyzer {
     public String getVariableType(String var) {
         String varType = "";
 
-        // check if var is declared in current scope
-        if (symbolTable.get(currentScope).getScopeItems().get(var) != null) {
-            varType = symbolTable.get(currentScope).getScopeItems().get(var).getType();
-
-        }
-        // not in current scope -> check parent
-        else if (symbolTable.get(currentScope).getParent() != null) {
-            int tempScope = currentScope;
-            while (symbolTable.get(tempScope).getParent() != null) {
-                if (symbolTable.get(tempScope).getScopeItems().get(var) != null) {
-                    varType = symbolTable.get(tempScope).getScopeItems().get(var).getType();
-                    tempScope = 0;
-                } else {
-                    tempScope = symbolTable.get(tempScope).getParent().getScopeNum();
-                    if (tempScope == 0 && symbolTable.get(tempScope).getScopeItems().get(var) != null) {
-                        varType = symbolTable.get(tempScope).getScopeItems().get(var).getType();
-                    }
-                }
-            }
+        // look up the innermost declaration visible from the current scope
+        SymbolTableItem item = scopeSnapshot.lookup(var);
+        if (item != null) {
+            varType = item.getType();
         }
         return varType;
     }
@@ -946,28 +927,18 @@ public class SemanticAnalyzer {
      * @return variable scope num
      */
     public int getVariableScope(String var) {
-       int varScope = -1;
-
-       // check if var is declared in current scope
-        if (symbolTable.get(currentScope).getScopeItems().get(var) != null) {
-            varScope = currentScope;
+        // look up the scope of the innermost declaration visible from the current scope
+        return scopeSnapshot.lookupScope(var);
+    }
 
-        }
-        // not in current scope -> check parent
-        else if (symbolTable.get(currentScope).getParent() != null) {
-            int tempScope = currentScope;
-            while (symbolTable.get(tempScope).getParent() != null) {
-                if (symbolTable.get(tempScope).getScopeItems().get(var) != null) {
-                    varScope = tempScope;
-                    tempScope = 0;
-                } else {
-                    tempScope = symbolTable.get(tempScope).getParent().getScopeNum();
-                    if (tempScope == 0 && symbolTable.get(tempScope).getScopeItems().get(var) != null) {
-                        varScope = tempScope;
-                    }
-                }
-            }
-        }
-        return varScope;
+    /**
+     * Add a statement node to the AST and record the scope snapshot the statement is in and the source position of
+     * the token it starts at
+     * @param name of statement node
+     */
+    private void addStatementNode(String name){
+        ast.addNode(name, "branch");
+        ast.getCurrent().setScopeSnapshot(scopeSnapshot);
+        ast.getCurrent().setSourcePosition(tokens.get(tokIndex - 1).getLine(), tokens.get(tokIndex - 1).getPosition());
     }
 }
@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+
+/**
+ * This class maps the finished machine code back to the source: each entry is a range of code bytes generated for
+ * one source statement, with the line and position the statement starts at. A statement can have more than one range
+ * (a while loop's condition is at the top of the loop and its jump back is after the body), and code that wasn't
+ * generated for a statement (the break at the end of the program) has no statement.
+ *
+ * @author Emily Doran
+ *
+ */
+public class SourceMap {
+
+    // code range and source statement of each entry, in code order
+    private ArrayList<Integer> starts = new ArrayList<Integer>();
+    private ArrayList<Integer> ends = new ArrayList<Integer>();
+    private ArrayList<Node> statements = new ArrayList<Node>();
+
+    /**
+     * Creates a new instance of SourceMap from the source statement of each instruction of the code
+     * @param emitter with the finished code
+     */
+    public SourceMap(Emitter emitter){
+        ArrayList<MachineInstruction> instructions = emitter.decode();
+        if(instructions == null){
+            return;
+        }
+        for(MachineInstruction instruction: instructions){
+            int last = statements.size() - 1;
+            // the instruction continues the last range if it belongs to the same statement
+            if(last >= 0 && statements.get(last) == instruction.getSource() &&
+                    ends.get(last) == instruction.getOffset()){
+                ends.set(last, instruction.getOffset() + instruction.getLength());
+            }
+            else{
+                starts.add(instruction.getOffset());
+                ends.add(instruction.getOffset() + instruction.getLength());
+                statements.add(instruction.getSource());
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries
+     * @return size
+     */
+    public int size(){
+        return statements.size();
+    }
+
+    /**
+     * Get the first code address of an entry
+     * @param entry index
+     * @return start address
+     */
+    public int getStart(int entry){
+        return starts.get(entry);
+    }
+
+    /**
+     * Get the address right after the code of an entry
+     * @param entry index
+     * @return end address
+     */
+    public int getEnd(int entry){
+        return ends.get(entry);
+    }
+
+    /**
+     * Get the source statement of an entry
+     * @param entry index
+     * @return statement node (null if the code isn't from a statement)
+     */
+    public Node getStatement(int entry){
+        return statements.get(entry);
+    }
+
+    /**
+     * Find the entry a code address is in
+     * @param address in code
+     * @return entry index (-1 if not in the code)
+     */
+    public int find(int address){
+        // entries are in code order, so search for the last one starting at or before the address
+        int low = 0;
+        int high = starts.size() - 1;
+        int found = -1;
+        while(low <= high){
+            int middle = (low + high) / 2;
+            if(starts.get(middle) <= address){
+                found = middle;
+                low = middle + 1;
+            }
+            else{
+                high = middle - 1;
+            }
+        }
+        if(found != -1 && address >= ends.get(found)){
+            return -1;
+        }
+        return found;
+    }
+
+    /**
+     * Describe a source statement with its position, kind, and the names it starts with (like "3:5 Assign a")
+     * @param statement node (null for code that isn't from a statement)
+     * @return description
+     */
+    public static String describe(Node statement){
+        if(statement == null){
+            return "(no statement)";
+        }
+        return statement.getLine() + ":" + statement.getPosition() + " " + statementName(statement);
+    }
+
+    /**
+     * Write the map as JSON: the code size and one object per entry with its code range (end exclusive), the source
+     * line and position of its statement, and the statement (entries that aren't from a statement have line 0 and
+     * a null statement), like
+     * {"program": 1, "codeSize": 42, "entries": [
+     *   {"start": 0, "end": 5, "line": 2, "column": 3, "statement": "Assign a"}, ...]}
+     * @param programNum number of program
+     * @return JSON text
+     */
+    public String toJson(int programNum){
+        StringBuilder json = new StringBuilder();
+        int codeSize = 0;
+        if(!ends.isEmpty()){
+            codeSize = ends.get(ends.size() - 1);
+        }
+        json.append("{\"program\": ").append(programNum).append(", \"codeSize\": ").append(codeSize);
+        json.append(", \"entries\": [");
+        for(int i = 0; i < statements.size(); i++){
+            Node statement = statements.get(i);
+            if(i > 0){
+                json.append(',');
+            }
+            json.append("\n  {\"start\": ").append(starts.get(i)).append(", \"end\": ").append(ends.get(i));
+            if(statement == null){
+                json.append(", \"line\": 0, \"column\": 0, \"statement\": null}");
+            }
+            else{
+                json.append(", \"line\": ").append(statement.getLine()).append(", \"column\": ")
+                        .append(statement.getPosition()).append(", \"statement\": \"")
+                        .append(statementName(statement).replace("\\", "\\\\").replace("\"", "\\\"")).append("\"}");
+            }
+        }
+        json.append("\n]}\n");
+        return json.toString();
+    }
+
+    /**
+     * Name a statement by its kind and the names it starts with (like "Assign a")
+     * @param statement node
+     * @return name
+     */
+    private static String statementName(Node statement){
+        String description = statement.getName();
+        // declarations are told apart by their type and variable, and assignments by their variable
+        if(statement.getName().equals("VariableDeclaration")){
+            description += " " + statement.getChildren().get(0).getName() + " " +
+                    statement.getChildren().get(1).getName();
+        }
+        else if(statement.getName().equals("Assign")){
+            description += " " + statement.getChildren().get(0).getName();
+        }
+        return description;
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Set;
 
 /**
  * This class represents a static variable table for the 6502a instruction set
@@ -11,19 +10,61 @@ public class StaticVariableTable {
 
     ArrayList<StaticVariableTableItem> variableTable;
 
+    // declared variables indexed by scope and slot (a = 0 ... z = 25)
+    private StaticVariableTableItem[][] variableIndex;
+
+    // temporary variables indexed by temp id
+    private ArrayList<StaticVariableTableItem> temps;
+
+    // temps that are not in use and can be handed out again
+    private ArrayList<StaticVariableTableItem> freeTemps;
+
     /**
      * Initialize the static variable table to be the ArrayList<StaticVariableTableItem>
+     * @param numScopes number of scopes in the program
      */
-    public StaticVariableTable(){
+    public StaticVariableTable(int numScopes){
         variableTable = new ArrayList<StaticVariableTableItem>();
+        variableIndex = new StaticVariableTableItem[numScopes][26];
+        temps = new ArrayList<StaticVariableTableItem>();
+        freeTemps = new ArrayList<StaticVariableTableItem>();
     }
 
     /**
-     * Add a variable to table
-     * @param item to add
+     * Add a declared variable to table
+     * @param name of variable, scope of variable
+     * @return new StaticVariableTableItem
      */
-    public void addItem(StaticVariableTableItem item){
+    public StaticVariableTableItem addVariable(char name, int scope){
+        StaticVariableTableItem item = new StaticVariableTableItem(variableTable.size(), "T" + variableTable.size() + "XX",
+                name, scope);
         variableTable.add(item);
+        variableIndex[scope][name - 'a'] = item;
+        return item;
+    }
+
+    /**
+     * Get a temporary variable that is not in use, reusing a released temp before adding a new one to the table.
+     * A temp is in use until it is passed to releaseTemp.
+     * @return StaticVariableTableItem of temp (scope -1)
+     */
+    public StaticVariableTableItem addTemp(){
+        if(!freeTemps.isEmpty()){
+            return freeTemps.remove(freeTemps.size() - 1);
+        }
+        StaticVariableTableItem item = new StaticVariableTableItem(variableTable.size(),
+                "T" + variableTable.size() + "XX", ' ', -1);
+        variableTable.add(item);
+        temps.add(item);
+        return item;
+    }
+
+    /**
+     * End the lifetime of a temp, so a later temp can reuse its slot
+     * @param item StaticVariableTableItem of temp
+     */
+    public void releaseTemp(StaticVariableTableItem item){
+        freeTemps.add(item);
     }
 
     /**
@@ -42,27 +83,101 @@ public class StaticVariableTable {
         return variableTable.size();
     }
 
+    /**
+     * Get the number of temporary variable slots in table
+     * @return number of temps
+     */
+    public int getNumTemps(){
+        return temps.size();
+    }
+
     /**
      * Get a specific variable table item
+     * @param name of variable, scopeNum of declaration
      * @return StaticVariableTableItem with char name and int scopeNum
      */
     public StaticVariableTableItem getItem(char name, int scopeNum){
-        StaticVariableTableItem item = variableTable.get(0);
+        StaticVariableTableItem item = null;
+        if(scopeNum >= 0 && scopeNum < variableIndex.length && name >= 'a' && name <= 'z'){
+            item = variableIndex[scopeNum][name - 'a'];
+        }
+        if(item == null){
+            throw new IllegalStateException("No static variable " + name + " in scope " + scopeNum);
+        }
+        return item;
+    }
+
+    /**
+     * Get a variable table item by position
+     * @param index of item
+     * @return StaticVariableTableItem at index
+     */
+    public StaticVariableTableItem getItem(int index){
+        if(index < 0 || index >= variableTable.size()){
+            throw new IllegalStateException("No static variable at index " + index);
+        }
+        return variableTable.get(index);
+    }
+
+    /**
+     * Set each variable's address starting at startAddress. Variables in sibling scopes are never in use at the
+     * same time, so each scope's variables are placed after its parent scope's variables and sibling scopes share
+     * the same addresses. Temporary variables (scope -1) are placed after the deepest scope.
+     * @param startAddress first address after the code, symbolTable to get each scope's parent from
+     * @return number of bytes of static memory used
+     */
+    public int allocateAddresses(int startAddress, SymbolTable symbolTable){
+        int numScopes = symbolTable.size();
+
+        // count the variables declared in each scope
+        int[] scopeSize = new int[numScopes];
         for(int i = 0; i < variableTable.size(); i++){
-            if(variableTable.get(i).getScope() == scopeNum && variableTable.get(i).getVar() == name){
-                item = variableTable.get(i);
-                i = variableTable.size();
+            if(variableTable.get(i).getScope() >= 0){
+                scopeSize[variableTable.get(i).getScope()]++;
             }
         }
-        return item;
+
+        // scopes are numbered in the order they are entered, so a parent is always placed before its children
+        int[] scopeStart = new int[numScopes];
+        int scopeStorage = 0;
+        for(int i = 0; i < numScopes; i++){
+            Scope parent = symbolTable.get(i).getParent();
+            if(parent != null){
+                scopeStart[i] = scopeStart[parent.getScopeNum()] + scopeSize[parent.getScopeNum()];
+            }
+            scopeStorage = Math.max(scopeStorage, scopeStart[i] + scopeSize[i]);
+        }
+
+        // give each variable the next slot of its scope and each temp its own slot
+        int[] nextSlot = scopeStart.clone();
+        int tempSlot = scopeStorage;
+        for(int i = 0; i < variableTable.size(); i++){
+            StaticVariableTableItem item = variableTable.get(i);
+            if(item.getScope() >= 0){
+                item.setAddress(startAddress + nextSlot[item.getScope()]);
+                nextSlot[item.getScope()]++;
+            }
+            else{
+                item.setAddress(startAddress + tempSlot);
+                tempSlot++;
+            }
+        }
+        return tempSlot;
     }
 
     /**
      * Get the string representation of the static variable table
      */
     public void printStaticVariableTable(){
+        int tempId = 0;
         for(int i = 0; i < variableTable.size(); i++){
-            System.out.printf("%-6s%-7s%-9s%2s\n", variableTable.get(i).getVar(), variableTable.get(i).getTemp(),
+            // temps are listed by temp id instead of a variable name
+            String name = Character.toString(variableTable.get(i).getVar());
+            if(variableTable.get(i).getScope() < 0){
+                name = Integer.toString(tempId);
+                tempId++;
+            }
+            System.out.printf("%-6s%-7s%-9s%2s\n", name, variableTable.get(i).getTemp(),
                     Integer.toHexString(variableTable.get(i).getAddress()).toUpperCase(), variableTable.get(i).getScope());
         }
     }
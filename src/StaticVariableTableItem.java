@@ -6,17 +6,27 @@
  */
 public class StaticVariableTableItem {
 
+    private int index;
     private String temp;
     private int address;
     private char var;
     private int scope;
 
-    public StaticVariableTableItem(String temp, char var, int scope){
+    public StaticVariableTableItem(int index, String temp, char var, int scope){
+        this.index = index;
         this.temp = temp;
         this.var = var;
         this.scope = scope;
     }
 
+    /**
+     * Get the position of item in the static variable table
+     * @return index of item
+     */
+    public int getIndex(){
+        return index;
+    }
+
     /**
      * Sets the temp address of var in memory
      * @param temp address
@@ -50,39 +50,42 @@ public class SymbolTable {
     }
 
     /**
-     * Print warnings for uninitialized and unused variables
+     * Print warnings for uninitialized and unused variables in declaration order
      */
     public int printWarnings(){
         int numWarnings = 0;
-        // iterate through symbol table to check if variables are initialized/used
+        // iterate through symbol table and compute each scope's warnings from its used/initialized bitsets
         for(int i = 0; i < symbolTable.size(); i++){
-            Set<String> keys = symbolTable.get(i).getScopeItems().keySet();
-            for(String key: keys){
-                if(symbolTable.get(i).getScopeItems().get(key).getIsUsed() == false &&
-                        symbolTable.get(i).getScopeItems().get(key).getIsInitialized() == true){
+            Scope scope = symbolTable.get(i);
+            int declared = scope.getDeclaredBits();
+            int used = scope.getUsedBits();
+            int initialized = scope.getInitializedBits();
+
+            int initializedNotUsed = declared & initialized & ~used;
+            int notInitializedOrUsed = declared & ~initialized & ~used;
+            int usedNotInitialized = declared & used & ~initialized;
+
+            // every variable in scope is initialized and used
+            if((initializedNotUsed | notInitializedOrUsed | usedNotInitialized) == 0){
+                continue;
+            }
+
+            for(String key: scope.getDeclarationOrder()){
+                int bit = Scope.getBit(key);
+                if((initializedNotUsed & bit) != 0){
                     System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
                             " ] is declared and initialized but never used.");
-
                     numWarnings++;
                 }
-                else {
-                    if(symbolTable.get(i).getScopeItems().get(key).getIsInitialized() == false &&
-                            symbolTable.get(i).getScopeItems().get(key).getIsUsed() == false){
-                        System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
-                                " ] is declared but never initialized or used.");
-                        numWarnings++;
-                    }
-                    else if(symbolTable.get(i).getScopeItems().get(key).getIsUsed() == false){
-                        System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
-                                " ] is declared but never used.");
-                        numWarnings++;
-                    }
-                    else if(symbolTable.get(i).getScopeItems().get(key).getIsInitialized() == false &&
-                            symbolTable.get(i).getScopeItems().get(key).getIsUsed() == true){
-                        System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
-                                " ] is declared and used but never initialized.");
-                        numWarnings++;
-                    }
+                else if((notInitializedOrUsed & bit) != 0){
+                    System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
+                            " ] is declared but never initialized or used.");
+                    numWarnings++;
+                }
+                else if((usedNotInitialized & bit) != 0){
+                    System.out.println("SEMANTIC ANALYSIS: WARNING: Variable [ " + key +
+                            " ] is declared and used but never initialized.");
+                    numWarnings++;
                 }
             }
         }
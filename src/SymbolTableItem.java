@@ -9,10 +9,10 @@ import java.util.ArrayList;
  */
 public class SymbolTableItem {
 
-    private String varType;
+    private final String varType;
     private boolean isUsed;
     private boolean isInitialized;
-    private int lineNum;
+    private final int lineNum;
 
     /**
      * Create a new SymbolTableItem and set booleans isUsed, isInitialized to false initially.